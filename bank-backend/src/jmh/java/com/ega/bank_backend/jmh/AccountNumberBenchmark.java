@@ -0,0 +1,75 @@
+package com.ega.bank_backend.jmh;
+
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.service.AccountNumberPool;
+import org.iban4j.CountryCode;
+import org.iban4j.Iban;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'attribution d'un numéro de compte
+ * ({@code AccountService.generateUniqueAccountNumber}, servi par
+ * {@link AccountNumberPool#take()}).
+ * <ul>
+ * <li>{@code randomIban} : génération seule d'un IBAN par iban4j ;</li>
+ * <li>{@code take} : numéro réservé pris dans la réserve, régénérée en fond.
+ * En boucle serrée la réserve se vide : la mesure inclut alors la génération
+ * et la réservation dans l'appelant.</li>
+ * </ul>
+ * La réserve est recréée à chaque itération pour que l'ensemble des numéros
+ * connus ne grossisse pas d'une itération à l'autre.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberBenchmark {
+
+    private AccountNumberPool pool;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pool = new AccountNumberPool(emptyRepository(), 512);
+        pool.prefill();
+    }
+
+    @Benchmark
+    public String randomIban() {
+        return Iban.random(CountryCode.FR).toString();
+    }
+
+    @Benchmark
+    public String take() {
+        return pool.take();
+    }
+
+    /**
+     * Dépôt sans base : seule la liste des numéros existants est lue par la
+     * réserve.
+     */
+    private static AccountRepository emptyRepository() {
+        return (AccountRepository) Proxy.newProxyInstance(AccountRepository.class.getClassLoader(),
+                new Class<?>[] { AccountRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllAccountNumbers")) {
+                        return List.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,59 @@
+package com.ega.bank_backend.jmh;
+
+import com.ega.bank_backend.BankBackendApplication;
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.ClientRepository;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Application complète démarrée dans le fork JMH, sur la base H2 embarquée
+ * (une base neuve par fork). Partagée par les benchmarks de services qui la
+ * reçoivent en paramètre.
+ */
+@State(Scope.Benchmark)
+public class BankApplication {
+
+    private ConfigurableApplicationContext context;
+
+    @Setup
+    public void start() {
+        context = SpringApplication.run(BankBackendApplication.class,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN");
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Crée un client et un compte courant vide ; retourne le numéro du compte.
+     */
+    public String openAccount(String accountNumber) {
+        Client owner = new Client();
+        owner.setFirstName("Bench");
+        owner.setLastName(accountNumber);
+        owner.setEmail(accountNumber.toLowerCase() + "@bench.example");
+        owner = bean(ClientRepository.class).save(owner);
+
+        Account account = new Account();
+        account.setAccountType(AccountType.COURANT);
+        account.setAccountNumber(accountNumber);
+        account.setOwner(owner);
+        return bean(AccountRepository.class).save(account).getAccountNumber();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ega.bank_backend.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compare un résultat JMH (JSON) à la référence versionnée.
+ * <p>
+ * Usage : {@code BaselineComparison <référence.json> <résultat.json> <tolérance>}.
+ * Chaque benchmark présent dans les deux fichiers est comparé sur son score
+ * principal ; un écart défavorable supérieur à la tolérance (ex. {@code 0.2}
+ * pour 20 %) est une régression et le programme se termine en erreur. Le sens
+ * favorable dépend du mode : plus haut en débit ({@code thrpt}), plus bas en
+ * temps ({@code avgt}, {@code sample}, {@code ss}).
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json> <tolerance>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(Path.of(args[0]));
+        Map<String, JsonNode> result = read(Path.of(args[1]));
+        double tolerance = Double.parseDouble(args[2]);
+
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-70s %14s %14s %8s%n", "Benchmark", "Référence", "Mesure", "Écart");
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode reference = baseline.get(entry.getKey());
+            if (reference == null) {
+                System.out.printf(Locale.ROOT, "%-70s %14s %14.3f %8s%n",
+                        entry.getKey(), "-", score(entry.getValue()), "nouveau");
+                continue;
+            }
+            double before = score(reference);
+            double after = score(entry.getValue());
+            double change = (after - before) / before;
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            boolean regressed = higherIsBetter ? change < -tolerance : change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-70s %14.3f %14.3f %+7.1f%%%s%n",
+                    entry.getKey(), before, after, change * 100, regressed ? "  RÉGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.err.printf(Locale.ROOT, "%d régression(s) au-delà de %.0f %%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Résultats indexés par nom de benchmark, mode et paramètres.
+     */
+    private static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText())
+                    .append(" [").append(run.path("mode").asText()).append(']');
+            run.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(key.toString(), run);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode run) {
+        return run.path("primaryMetric").path("score").asDouble();
+    }
+}
@@ -0,0 +1,125 @@
+package com.ega.bank_backend.jmh;
+
+import com.ega.bank_backend.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coût de l'authentification d'une requête par {@link JwtUtils}.
+ * <ul>
+ * <li>{@code legacyFilterPath} : ancien chemin du filtre, clé et parseur
+ * reconstruits à chaque appel, jeton lu trois fois
+ * ({@code extractUsername} puis {@code validateToken}) ;</li>
+ * <li>{@code parseUncached} : une lecture avec clé et parseur réutilisés,
+ * cache désactivé (premier appel d'une session) ;</li>
+ * <li>{@code parseCached} : jeton déjà vérifié (appels suivants) ;</li>
+ * <li>{@code generateToken} : émission d'un jeton à la connexion ;</li>
+ * <li>{@code extractUsername} et {@code validateToken} : méthodes publiques
+ * de {@link JwtUtils}, jeton déjà en cache.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private LegacyJwtUtils legacy;
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacyJwtUtils();
+        uncached = new JwtUtils(0);
+        cached = new JwtUtils(10_000);
+        user = new User("bench", "", List.of(new SimpleGrantedAuthority("ROLE_CLIENT")));
+        token = cached.generateToken(user);
+        cached.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String username = legacy.extractUsername(token);
+        return username != null && legacy.validateToken(token, user);
+    }
+
+    @Benchmark
+    public Claims parseUncached() {
+        return uncached.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseCached() {
+        return cached.parseClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return cached.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return cached.validateToken(token, user);
+    }
+
+    /**
+     * Copie de l'implémentation précédente de {@link JwtUtils}, comme point de
+     * comparaison.
+     */
+    static final class LegacyJwtUtils {
+        private final String secret = "EgaBankSecretKeyForJwtAuthenticationMustBeLongEnough";
+
+        private Key getSigningKey() {
+            return Keys.hmacShaKeyFor(secret.getBytes());
+        }
+
+        String extractUsername(String token) {
+            return extractClaim(token, Claims::getSubject);
+        }
+
+        <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+            return claimsResolver.apply(Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody());
+        }
+
+        boolean validateToken(String token, UserDetails userDetails) {
+            final String username = extractUsername(token);
+            return username.equals(userDetails.getUsername())
+                    && !extractClaim(token, Claims::getExpiration).before(new Date());
+        }
+    }
+}
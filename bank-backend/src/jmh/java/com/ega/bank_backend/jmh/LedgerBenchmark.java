@@ -0,0 +1,56 @@
+package com.ega.bank_backend.jmh;
+
+import com.ega.bank_backend.dto.TransactionRequestDTO;
+import com.ega.bank_backend.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une écriture au grand livre par {@link TransactionService}, de
+ * l'appel du service au commit H2 (verrou de compte, mise à jour
+ * conditionnelle du solde, insertion de l'opération, métriques).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LedgerBenchmark {
+
+    private TransactionService transactionService;
+    private TransactionRequestDTO deposit;
+    private TransactionRequestDTO transfer;
+
+    @Setup
+    public void setUp(BankApplication application) {
+        transactionService = application.bean(TransactionService.class);
+        String source = application.openAccount("FR76LEDGERBENCHSRC");
+        String target = application.openAccount("FR76LEDGERBENCHDST");
+        transactionService.deposit(new TransactionRequestDTO(source, new BigDecimal("1000000000.00"), null, null));
+
+        deposit = new TransactionRequestDTO(target, new BigDecimal("1.00"), "Benchmark", null);
+        transfer = new TransactionRequestDTO(source, new BigDecimal("1.00"), "Benchmark", target);
+    }
+
+    @Benchmark
+    public void deposit() {
+        transactionService.deposit(deposit);
+    }
+
+    @Benchmark
+    public void transfer() {
+        transactionService.transfer(transfer);
+    }
+}
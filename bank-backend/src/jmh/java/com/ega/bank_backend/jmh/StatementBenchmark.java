@@ -0,0 +1,103 @@
+package com.ega.bank_backend.jmh;
+
+import com.ega.bank_backend.dto.TransactionRequestDTO;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.service.StatementWriter;
+import com.ega.bank_backend.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'un relevé bancaire de {@code rows} opérations.
+ * <ul>
+ * <li>{@code generateBankStatement} : appel complet du service (lecture H2
+ * et rendu) ;</li>
+ * <li>{@code render} : rendu seul par {@link StatementWriter}, à partir
+ * d'opérations déjà en mémoire.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementBenchmark {
+
+    @Param("500")
+    public int rows;
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDateTime[] timestamps;
+    private BigDecimal[] amounts;
+
+    @Setup
+    public void setUp() {
+        start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        end = start.plusYears(100);
+        timestamps = new LocalDateTime[rows];
+        amounts = new BigDecimal[rows];
+        for (int i = 0; i < rows; i++) {
+            timestamps[i] = start.plusHours(i);
+            amounts[i] = BigDecimal.valueOf(1000 + i, 2);
+        }
+    }
+
+    @Benchmark
+    public String render() throws IOException {
+        StringWriter out = new StringWriter();
+        StatementWriter statement = new StatementWriter(out);
+        statement.writeHeader("Bench Statement", "FR7630006000011234567890189", AccountType.COURANT,
+                start, end, BigDecimal.ZERO);
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int i = 0; i < rows; i++) {
+            statement.writeRow(timestamps[i], TransactionType.DEPOT, amounts[i], "Dépôt sur compte");
+            balance = balance.add(amounts[i]);
+        }
+        statement.writeFooter(balance);
+        return out.toString();
+    }
+
+    @Benchmark
+    public String generateBankStatement(Service service) {
+        return service.transactionService.generateBankStatement(service.accountNumber, start, end);
+    }
+
+    /**
+     * Compte alimenté de {@code rows} dépôts, créé seulement pour le
+     * benchmark du service.
+     */
+    @State(Scope.Benchmark)
+    public static class Service {
+
+        TransactionService transactionService;
+        String accountNumber;
+
+        @Setup
+        public void setUp(BankApplication application, StatementBenchmark benchmark) {
+            transactionService = application.bean(TransactionService.class);
+            accountNumber = application.openAccount("FR76STATEMENTBENCH");
+            for (int i = 0; i < benchmark.rows; i++) {
+                transactionService.deposit(new TransactionRequestDTO(accountNumber,
+                        benchmark.amounts[i], "Dépôt sur compte", null));
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ega.bank_backend.jmh;
+
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionDirection;
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.TransactionRepository;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit d'insertion des lignes d'opérations sur H2, en lignes par seconde,
+ * par transactions de {@value #ROWS} lignes.
+ * <ul>
+ * <li>{@code pooledSequence} : entité {@link Transaction} actuelle, clé tirée
+ * d'une séquence pooled-lo, insertions regroupées en lots JDBC
+ * ({@code hibernate.jdbc.batch_size}) ;</li>
+ * <li>{@code identity} : copie de la table avec l'ancienne clé
+ * {@code IDENTITY}, qui oblige Hibernate à exécuter chaque INSERT seul pour
+ * lire la clé générée.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionInsertBenchmark {
+
+    static final int ROWS = 500;
+
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private Long accountId;
+
+    @Setup
+    public void setUp(BankApplication application) {
+        accountRepository = application.bean(AccountRepository.class);
+        transactionRepository = application.bean(TransactionRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                application.bean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+        accountId = accountRepository.findByAccountNumber(application.openAccount("FR76INSERTBENCH"))
+                .orElseThrow()
+                .getId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void pooledSequence() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountRepository.getReferenceById(accountId);
+            List<Transaction> transactions = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                Transaction transaction = new Transaction();
+                transaction.setType(TransactionType.DEPOT);
+                transaction.setDirection(TransactionDirection.CREDIT);
+                transaction.setAmount(BigDecimal.TEN);
+                transaction.setDescription("Dépôt sur compte");
+                transaction.setAccount(account);
+                transactions.add(transaction);
+            }
+            transactionRepository.saveAll(transactions);
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void identity() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountRepository.getReferenceById(accountId);
+            for (int i = 0; i < ROWS; i++) {
+                IdentityTransaction transaction = new IdentityTransaction();
+                transaction.type = TransactionType.DEPOT;
+                transaction.direction = TransactionDirection.CREDIT;
+                transaction.amount = BigDecimal.TEN;
+                transaction.timestamp = LocalDateTime.now();
+                transaction.description = "Dépôt sur compte";
+                transaction.account = account;
+                entityManager.persist(transaction);
+            }
+        });
+    }
+
+    /**
+     * Mêmes colonnes et index que {@link Transaction}, avec la clé
+     * {@code IDENTITY} d'origine. Déclarée dans les sources JMH seulement :
+     * sa table n'existe que dans l'application démarrée par le benchmark.
+     */
+    @Entity
+    @Table(name = "identity_transactions", indexes = {
+            @Index(name = "idx_identity_transactions_account_timestamp", columnList = "account_id, timestamp, id"),
+            @Index(name = "idx_identity_transactions_timestamp", columnList = "timestamp, id")
+    })
+    static class IdentityTransaction {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        @Enumerated(EnumType.STRING)
+        TransactionType type;
+        @Enumerated(EnumType.STRING)
+        TransactionDirection direction;
+        BigDecimal amount;
+        LocalDateTime timestamp;
+        String description;
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "account_id")
+        Account account;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ega.bank_backend.jmh;
+
+import com.ega.bank_backend.dto.TransactionResponseDTO;
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionDirection;
+import com.ega.bank_backend.entity.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de {@link TransactionResponseDTO#fromEntity} sur une opération dont le
+ * compte et le titulaire sont déjà chargés (concaténation du nom compris).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionMappingBenchmark {
+
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        Client owner = new Client();
+        owner.setId(1L);
+        owner.setFirstName("Jean");
+        owner.setLastName("Dupont");
+
+        Account account = new Account();
+        account.setId(1L);
+        account.setAccountNumber("FR7630006000011234567890189");
+        account.setAccountType(AccountType.COURANT);
+        account.setOwner(owner);
+
+        transaction = new Transaction();
+        transaction.setId(1L);
+        transaction.setType(TransactionType.VIREMENT);
+        transaction.setDirection(TransactionDirection.DEBIT);
+        transaction.setAmount(new BigDecimal("125.50"));
+        transaction.setTimestamp(LocalDateTime.of(2024, 1, 1, 12, 0));
+        transaction.setDescription("Virement");
+        transaction.setAccount(account);
+        transaction.setTargetAccountNumber("FR7630006000019876543210987");
+    }
+
+    @Benchmark
+    public TransactionResponseDTO fromEntity() {
+        return TransactionResponseDTO.fromEntity(transaction);
+    }
+}
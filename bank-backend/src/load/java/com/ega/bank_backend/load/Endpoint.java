@@ -0,0 +1,20 @@
+package com.ega.bank_backend.load;
+
+/**
+ * Appels rejoués par le harnais, repérés dans la collection Postman par leur
+ * méthode et leur chemin.
+ */
+enum Endpoint {
+    LOGIN("POST", "/auth/login"),
+    TRANSFER("POST", "/transactions/transfer"),
+    HISTORY("GET", "/transactions/history/"),
+    STATEMENT("GET", "/transactions/statement/");
+
+    final String method;
+    final String path;
+
+    Endpoint(String method, String path) {
+        this.method = method;
+        this.path = path;
+    }
+}
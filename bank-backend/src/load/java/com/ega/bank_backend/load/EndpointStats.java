@@ -0,0 +1,62 @@
+package com.ega.bank_backend.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs et histogramme de latence (HDR, en microsecondes) d'un endpoint.
+ * La latence part de l'instant où la requête devait partir, pas de son envoi
+ * effectif : un serveur saturé qui retarde les départs n'efface pas ce retard
+ * des mesures (omission coordonnée).
+ */
+final class EndpointStats {
+
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Réponse reçue ; un statut hors {@code 2xx} est compté comme refus.
+     */
+    void response(int status, long intendedStartNanos) {
+        recorder.recordValue(Math.max(0, (System.nanoTime() - intendedStartNanos) / 1_000));
+        (status >= 200 && status < 300 ? succeeded : rejected).increment();
+    }
+
+    /**
+     * Pas de réponse (connexion refusée, délai dépassé).
+     */
+    void failure() {
+        failed.increment();
+    }
+
+    /**
+     * Départ abandonné, trop de requêtes déjà en cours.
+     */
+    void drop() {
+        dropped.increment();
+    }
+
+    /**
+     * Remet les compteurs à zéro (fin de la chauffe).
+     */
+    void reset() {
+        recorder.reset();
+        succeeded.reset();
+        rejected.reset();
+        failed.reset();
+        dropped.reset();
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(recorder.getIntervalHistogram(), succeeded.sum(), rejected.sum(), failed.sum(),
+                dropped.sum());
+    }
+
+    record Snapshot(Histogram latencyMicros, long succeeded, long rejected, long failed, long dropped) {
+    }
+}
@@ -0,0 +1,253 @@
+package com.ega.bank_backend.load;
+
+import com.ega.bank_backend.BankBackendApplication;
+import com.ega.bank_backend.load.LoadSeeder.VirtualUser;
+import com.ega.bank_backend.load.PostmanCollection.RequestTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Harnais de charge embarqué : démarre l'application sur H2 dans le même
+ * processus, crée les utilisateurs virtuels puis rejoue les requêtes de la
+ * collection Postman (connexion, virement, historique, relevé) selon le mix
+ * demandé.
+ * <p>
+ * La charge est en boucle ouverte : les départs suivent le débit cible, sans
+ * attendre les réponses. Un serveur qui ralentit voit donc monter les
+ * requêtes en cours et les latences, au lieu d'un débit qui baisse en
+ * silence. Rapport par endpoint : débit, statuts et percentiles HDR, avec
+ * l'histogramme complet écrit dans {@code <output>/<endpoint>.hgrm}.
+ * <p>
+ * {@code mvn -Pload test-compile exec:exec -Dload.args="--users=2000 --rate=500"}
+ * (paramètres : {@link LoadSettings}).
+ */
+public final class LoadHarness {
+
+    private final LoadSettings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Endpoint, RequestTemplate> templates = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Semaphore inFlight;
+    private String baseUrl;
+    private List<VirtualUser> users;
+
+    private LoadHarness(LoadSettings settings) {
+        this.settings = settings;
+        this.inFlight = new Semaphore(settings.maxInFlight());
+        this.endpoints = settings.mix().keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += settings.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+            stats.put(endpoints[i], new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.parse(args);
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                // Tout le trafic vient de la boucle locale : la limitation par IP
+                // bloquerait les connexions dès les premières secondes.
+                "--bank.auth.rate-limit.ip.capacity=1000000000",
+                "--bank.auth.rate-limit.ip.refill-per-minute=1000000000",
+                "--bank.auth.rate-limit.username.capacity=1000000",
+                "--bank.auth.rate-limit.username.refill-per-minute=1000000"));
+        applicationArgs.addAll(settings.applicationArgs());
+        ConfigurableApplicationContext context = SpringApplication.run(BankBackendApplication.class,
+                applicationArgs.toArray(new String[0]));
+        try {
+            LoadHarness harness = new LoadHarness(settings);
+            harness.prepare(context);
+            harness.run();
+            harness.report(System.out);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void prepare(ConfigurableApplicationContext context) throws IOException {
+        PostmanCollection collection = PostmanCollection.read(settings.collection(), objectMapper);
+        for (Endpoint endpoint : endpoints) {
+            templates.put(endpoint, collection.find(endpoint));
+        }
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api";
+
+        long start = System.nanoTime();
+        users = new LoadSeeder(context).seed(settings.users());
+        System.out.printf(Locale.ROOT, "%d utilisateurs virtuels créés en %d ms%n", users.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Lance les requêtes au débit cible : chauffe, remise à zéro des mesures,
+     * puis mesure ; attend enfin les réponses en cours.
+     */
+    private void run() throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long measureStart = start + settings.warmup().toNanos();
+        long end = measureStart + settings.duration().toNanos();
+        boolean measuring = settings.warmup().isZero();
+        System.out.printf(Locale.ROOT, "Chauffe %s puis mesure %s à %d req/s%n",
+                settings.warmup(), settings.duration(), settings.rate());
+
+        for (long i = 0;; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && intendedStart >= measureStart) {
+                stats.values().forEach(EndpointStats::reset);
+                measuring = true;
+            }
+            fire(pickEndpoint(), intendedStart);
+        }
+
+        if (!inFlight.tryAcquire(settings.maxInFlight(), settings.requestTimeout().toMillis(),
+                TimeUnit.MILLISECONDS)) {
+            System.out.println("Réponses encore en attente à la fin du tir");
+        }
+    }
+
+    private Endpoint pickEndpoint() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void fire(Endpoint endpoint, long intendedStart) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (!inFlight.tryAcquire()) {
+            endpointStats.drop();
+            return;
+        }
+        HttpRequest request;
+        try {
+            request = buildRequest(endpoint);
+        } catch (RuntimeException | JsonProcessingException ex) {
+            inFlight.release();
+            throw new IllegalStateException("Requête " + endpoint + " invalide", ex);
+        }
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    inFlight.release();
+                    if (response != null) {
+                        endpointStats.response(response.statusCode(), intendedStart);
+                    } else {
+                        endpointStats.failure();
+                    }
+                });
+    }
+
+    /**
+     * Requête de la collection adaptée à un utilisateur virtuel tiré au
+     * hasard : identifiants pour la connexion, ses comptes ailleurs, et le
+     * compte d'un autre utilisateur comme destinataire d'un virement.
+     */
+    private HttpRequest buildRequest(Endpoint endpoint) throws JsonProcessingException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        VirtualUser user = users.get(random.nextInt(users.size()));
+        RequestTemplate template = templates.get(endpoint);
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(settings.requestTimeout());
+
+        switch (endpoint) {
+            case LOGIN -> {
+                ObjectNode body = template.body().deepCopy();
+                body.put("username", user.username());
+                body.put("password", LoadSeeder.PASSWORD);
+                jsonBody(builder, body).uri(URI.create(template.resolve(baseUrl, endpoint.path, null)));
+            }
+            case TRANSFER -> {
+                VirtualUser beneficiary = users.get(random.nextInt(users.size()));
+                ObjectNode body = template.body().deepCopy();
+                body.put("accountNumber", user.currentAccount());
+                body.put("targetAccountNumber", beneficiary == user
+                        ? user.savingsAccount()
+                        : beneficiary.currentAccount());
+                jsonBody(builder, body).uri(URI.create(template.resolve(baseUrl, endpoint.path, null)));
+            }
+            case HISTORY, STATEMENT -> builder.GET()
+                    .uri(URI.create(template.resolve(baseUrl, endpoint.path, user.currentAccount())));
+        }
+        if (endpoint != Endpoint.LOGIN) {
+            builder.header("Authorization", user.authorization());
+        }
+        return builder.build();
+    }
+
+    private HttpRequest.Builder jsonBody(HttpRequest.Builder builder, ObjectNode body)
+            throws JsonProcessingException {
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private void report(PrintStream out) throws IOException {
+        Files.createDirectories(settings.output());
+        double seconds = settings.duration().toMillis() / 1000.0;
+        out.printf(Locale.ROOT, "%n%-10s %9s %9s %8s %8s %8s %9s %9s %9s %9s %9s%n", "Endpoint", "Réponses",
+                "req/s", "Refus", "Échecs", "Abandons", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Endpoint endpoint : endpoints) {
+            EndpointStats.Snapshot snapshot = stats.get(endpoint).snapshot();
+            Histogram latency = snapshot.latencyMicros();
+            out.printf(Locale.ROOT, "%-10s %9d %9.1f %8d %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint.name().toLowerCase(Locale.ROOT),
+                    latency.getTotalCount(),
+                    latency.getTotalCount() / seconds,
+                    snapshot.rejected(),
+                    snapshot.failed(),
+                    snapshot.dropped(),
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(
+                    settings.output().resolve(endpoint.name().toLowerCase(Locale.ROOT) + ".hgrm")))) {
+                latency.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        out.println("Histogrammes HDR (ms) : " + settings.output().toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
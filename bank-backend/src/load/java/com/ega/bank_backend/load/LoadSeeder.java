@@ -0,0 +1,117 @@
+package com.ega.bank_backend.load;
+
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.AppUser;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.entity.Role;
+import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionDirection;
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.ClientRepository;
+import com.ega.bank_backend.repository.TransactionRepository;
+import com.ega.bank_backend.security.JwtUtils;
+import com.ega.bank_backend.service.AccountNumberPool;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Crée les utilisateurs virtuels directement en base, par tranches : un
+ * client inscrit ({@code load<i>}, mot de passe {@link #PASSWORD}) avec un
+ * compte courant et un compte épargne, chacun crédité d'un dépôt initial.
+ * Le mot de passe est haché une seule fois et partagé, le hachage BCrypt de
+ * milliers de comptes dominerait sinon la préparation.
+ */
+final class LoadSeeder {
+
+    static final String PASSWORD = "load123";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final BigDecimal INITIAL_DEPOSIT = new BigDecimal("1000000000.00");
+
+    private final ClientRepository clientRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountNumberPool accountNumberPool;
+    private final JwtUtils jwtUtils;
+    private final TransactionTemplate transactionTemplate;
+    private final String encodedPassword;
+
+    LoadSeeder(ApplicationContext context) {
+        this.clientRepository = context.getBean(ClientRepository.class);
+        this.accountRepository = context.getBean(AccountRepository.class);
+        this.transactionRepository = context.getBean(TransactionRepository.class);
+        this.accountNumberPool = context.getBean(AccountNumberPool.class);
+        this.jwtUtils = context.getBean(JwtUtils.class);
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.encodedPassword = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+    }
+
+    List<VirtualUser> seed(int users) {
+        List<VirtualUser> seeded = new ArrayList<>(users);
+        for (int from = 0; from < users; from += CHUNK_SIZE) {
+            int to = Math.min(users, from + CHUNK_SIZE);
+            int chunkStart = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = chunkStart; i < to; i++) {
+                    seeded.add(seedUser("load" + i));
+                }
+            });
+        }
+        return seeded;
+    }
+
+    private VirtualUser seedUser(String username) {
+        AppUser user = new AppUser();
+        user.setUsername(username);
+        user.setPassword(encodedPassword);
+        user.setRole(Role.CLIENT);
+
+        Client client = new Client();
+        client.setFirstName("Load");
+        client.setLastName(username);
+        client.setEmail(username + "@load.example");
+        client.setUser(user);
+        user.setClient(client);
+        clientRepository.save(client);
+
+        String current = openAccount(client, AccountType.COURANT);
+        String savings = openAccount(client, AccountType.EPARGNE);
+        String token = jwtUtils.generateToken(
+                new User(username, "", List.of(new SimpleGrantedAuthority("ROLE_CLIENT"))));
+        return new VirtualUser(username, "Bearer " + token, current, savings);
+    }
+
+    private String openAccount(Client owner, AccountType type) {
+        Account account = new Account();
+        account.setAccountType(type);
+        account.setAccountNumber(accountNumberPool.take());
+        account.setBalance(INITIAL_DEPOSIT);
+        account.setOwner(owner);
+        accountRepository.save(account);
+
+        Transaction deposit = new Transaction();
+        deposit.setType(TransactionType.DEPOT);
+        deposit.setDirection(TransactionDirection.CREDIT);
+        deposit.setAmount(INITIAL_DEPOSIT);
+        deposit.setDescription("Dépôt initial");
+        deposit.setAccount(account);
+        transactionRepository.save(deposit);
+        return account.getAccountNumber();
+    }
+
+    /**
+     * Utilisateur virtuel : jeton déjà émis et ses deux comptes.
+     */
+    record VirtualUser(String username, String authorization, String currentAccount, String savingsAccount) {
+    }
+}
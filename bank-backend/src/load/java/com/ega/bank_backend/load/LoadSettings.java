@@ -0,0 +1,93 @@
+package com.ega.bank_backend.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Paramètres d'un tir, lus sur la ligne de commande ({@code --clé=valeur}) :
+ * <ul>
+ * <li>{@code users} : utilisateurs virtuels, chacun un client inscrit avec
+ * deux comptes (2000) ;</li>
+ * <li>{@code rate} : requêtes lancées par seconde, quel que soit le temps de
+ * réponse (500) ;</li>
+ * <li>{@code warmup} et {@code duration} : durée de chauffe, non mesurée, puis
+ * de mesure ({@code PT10S}, {@code PT60S}) ;</li>
+ * <li>{@code mix} : poids de chaque endpoint
+ * ({@code login=5,transfer=35,history=40,statement=20}) ;</li>
+ * <li>{@code max-in-flight} : requêtes en cours au-delà desquelles un départ
+ * est abandonné et compté comme tel (10000) ;</li>
+ * <li>{@code request-timeout} : délai maximal d'une réponse ({@code PT30S}) ;</li>
+ * <li>{@code collection} : collection Postman qui fournit les requêtes
+ * ({@code bank-api-postman.json}) ;</li>
+ * <li>{@code output} : répertoire des histogrammes HDR ({@code target/load}).</li>
+ * </ul>
+ * Une clé préfixée par {@code app.} est transmise à l'application, pour
+ * comparer deux configurations : {@code --app.spring.datasource.hikari.maximum-pool-size=20}.
+ */
+record LoadSettings(
+        int users,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        Map<Endpoint, Integer> mix,
+        int maxInFlight,
+        Duration requestTimeout,
+        Path collection,
+        Path output,
+        List<String> applicationArgs) {
+
+    private static final String APPLICATION_PREFIX = "app.";
+
+    static LoadSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Argument attendu sous la forme --clé=valeur : " + arg);
+            }
+            String key = arg.substring(2, separator);
+            if (key.startsWith(APPLICATION_PREFIX)) {
+                applicationArgs.add("--" + arg.substring(2 + APPLICATION_PREFIX.length()));
+            } else {
+                values.put(key, arg.substring(separator + 1));
+            }
+        }
+        LoadSettings settings = new LoadSettings(
+                Integer.parseInt(values.getOrDefault("users", "2000")),
+                Integer.parseInt(values.getOrDefault("rate", "500")),
+                Duration.parse(values.getOrDefault("warmup", "PT10S")),
+                Duration.parse(values.getOrDefault("duration", "PT60S")),
+                parseMix(values.getOrDefault("mix", "login=5,transfer=35,history=40,statement=20")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                Duration.parse(values.getOrDefault("request-timeout", "PT30S")),
+                Path.of(values.getOrDefault("collection", "bank-api-postman.json")),
+                Path.of(values.getOrDefault("output", "target/load")),
+                List.copyOf(applicationArgs));
+        if (settings.users() < 2 || settings.rate() < 1) {
+            throw new IllegalArgumentException("users doit valoir au moins 2 et rate au moins 1");
+        }
+        return settings;
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(entry[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Le mix ne contient aucun endpoint : " + mix);
+        }
+        return weights;
+    }
+}
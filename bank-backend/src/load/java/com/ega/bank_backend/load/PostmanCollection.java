@@ -0,0 +1,88 @@
+package com.ega.bank_backend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Requêtes de la collection Postman ({@code bank-api-postman.json}), dossiers
+ * aplatis.
+ */
+final class PostmanCollection {
+
+    private static final String BASE_URL = "{{base_url}}";
+
+    private final List<RequestTemplate> requests;
+
+    private PostmanCollection(List<RequestTemplate> requests) {
+        this.requests = requests;
+    }
+
+    static PostmanCollection read(Path file, ObjectMapper objectMapper) throws IOException {
+        List<RequestTemplate> requests = new ArrayList<>();
+        collect(objectMapper.readTree(file.toFile()).path("item"), objectMapper, requests);
+        return new PostmanCollection(requests);
+    }
+
+    private static void collect(JsonNode items, ObjectMapper objectMapper, List<RequestTemplate> requests)
+            throws IOException {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.path("item"), objectMapper, requests);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            JsonNode url = request.path("url");
+            String rawBody = request.path("body").path("raw").asText("");
+            requests.add(new RequestTemplate(
+                    item.path("name").asText(),
+                    request.path("method").asText(),
+                    url.isObject() ? url.path("raw").asText() : url.asText(),
+                    rawBody.isBlank() ? null : (ObjectNode) objectMapper.readTree(rawBody)));
+        }
+    }
+
+    /**
+     * Première requête de la collection pour cet endpoint.
+     *
+     * @throws IllegalStateException si la collection n'en contient aucune
+     */
+    RequestTemplate find(Endpoint endpoint) {
+        return requests.stream()
+                .filter(r -> r.method().equals(endpoint.method) && r.url().contains(endpoint.path))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "Aucune requête " + endpoint.method + " " + endpoint.path + " dans la collection"));
+    }
+
+    /**
+     * Requête Postman : URL brute (variables {@code {{...}}} comprises) et
+     * corps JSON éventuel, à copier avant modification.
+     */
+    record RequestTemplate(String name, String method, String url, ObjectNode body) {
+
+        /**
+         * URL résolue : {@code {{base_url}}} remplacé, et le segment qui suit
+         * {@code path} (un numéro de compte fictif dans la collection) remplacé
+         * par {@code pathParameter} s'il est fourni. La requête (dates de
+         * l'historique par exemple) est conservée.
+         */
+        String resolve(String baseUrl, String path, String pathParameter) {
+            String resolved = url.replace(BASE_URL, baseUrl);
+            if (pathParameter == null) {
+                return resolved;
+            }
+            int segmentStart = resolved.indexOf(path) + path.length();
+            int segmentEnd = resolved.indexOf('?', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = resolved.length();
+            }
+            return resolved.substring(0, segmentStart) + pathParameter + resolved.substring(segmentEnd);
+        }
+    }
+}
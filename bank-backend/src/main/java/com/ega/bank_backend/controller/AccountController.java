@@ -2,14 +2,23 @@ package com.ega.bank_backend.controller;
 
 import com.ega.bank_backend.dto.AccountRequestDTO;
 import com.ega.bank_backend.dto.AccountResponseDTO;
+import com.ega.bank_backend.dto.BalanceResponseDTO;
+import com.ega.bank_backend.dto.BulkImportResponseDTO;
 import com.ega.bank_backend.service.AccountService;
+import com.ega.bank_backend.service.BalanceSnapshotService;
+import com.ega.bank_backend.service.BulkImportService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,9 +26,14 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final BulkImportService bulkImportService;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, BalanceSnapshotService balanceSnapshotService,
+            BulkImportService bulkImportService) {
         this.accountService = accountService;
+        this.balanceSnapshotService = balanceSnapshotService;
+        this.bulkImportService = bulkImportService;
     }
 
     @PostMapping
@@ -28,6 +42,18 @@ public class AccountController {
         return new ResponseEntity<>(accountService.createAccount(dto), HttpStatus.CREATED);
     }
 
+    /**
+     * Ouverture de comptes en masse (Admin uniquement) depuis un tableau JSON
+     * d'{@link AccountRequestDTO} ou un fichier CSV ({@code accountType,clientId}).
+     * Retourne pour chaque ligne le numéro de compte attribué ou l'erreur.
+     */
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, "text/csv" })
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkImportResponseDTO bulkCreateAccounts(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) {
+        return bulkImportService.importAccounts(body, contentType);
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public List<AccountResponseDTO> getAllAccounts() {
@@ -40,6 +66,18 @@ public class AccountController {
         return accountService.getAccountByNumber(accountNumber);
     }
 
+    /**
+     * Solde du compte à un instant donné (maintenant par défaut), calculé à
+     * partir du dernier relevé de solde antérieur.
+     */
+    @GetMapping("/{accountNumber}/balance")
+    @PreAuthorize("hasRole('ADMIN') or @clientSecurity.isAccountOwner(authentication, #accountNumber)")
+    public BalanceResponseDTO getBalanceAt(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return balanceSnapshotService.getBalanceAt(accountNumber, at != null ? at : LocalDateTime.now());
+    }
+
     @GetMapping("/my-accounts")
     public List<AccountResponseDTO> getMyAccounts(Authentication authentication) {
         return accountService.getAccountsByUsername(authentication.getName());
@@ -0,0 +1,44 @@
+package com.ega.bank_backend.controller;
+
+import com.ega.bank_backend.security.LoginRateLimiter;
+import com.ega.bank_backend.security.PasswordHashingExecutor;
+import com.ega.bank_backend.service.OptimisticRetryPolicy;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Indicateurs d'exploitation internes (Admin uniquement).
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final OptimisticRetryPolicy retryPolicy;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final LoginRateLimiter rateLimiter;
+
+    public AdminController(OptimisticRetryPolicy retryPolicy, PasswordHashingExecutor hashingExecutor,
+            LoginRateLimiter rateLimiter) {
+        this.retryPolicy = retryPolicy;
+        this.hashingExecutor = hashingExecutor;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ledger.retries", retryPolicy.getRetryCount());
+        stats.put("ledger.retryFailures", retryPolicy.getFailureCount());
+        stats.put("auth.hashing.active", hashingExecutor.getActiveCount());
+        stats.put("auth.hashing.queueDepth", hashingExecutor.getQueueDepth());
+        stats.put("auth.hashing.rejected", hashingExecutor.getRejectedCount());
+        stats.put("auth.rateLimit.rejected", rateLimiter.getRejectedCount());
+        return stats;
+    }
+}
@@ -1,25 +1,55 @@
 package com.ega.bank_backend.controller;
 
+import com.ega.bank_backend.dto.BulkImportResponseDTO;
 import com.ega.bank_backend.dto.ClientRequestDTO;
 import com.ega.bank_backend.dto.ClientResponseDTO;
+import com.ega.bank_backend.dto.ClientSearchResultDTO;
+import com.ega.bank_backend.exception.BadRequestException;
+import com.ega.bank_backend.service.BulkImportService;
 import com.ega.bank_backend.service.ClientService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/clients")
 public class ClientController {
 
+    private static final String HAS_NEXT_HEADER = "X-Has-Next";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final Set<String> FIELDS = Set.of("id", "firstName", "lastName", "email", "status", "accounts");
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "firstName", "lastName", "email", "status");
+    private static final TypeReference<Map<String, Object>> FIELD_MAP = new TypeReference<>() {
+    };
+
     private final ClientService clientService;
+    private final BulkImportService bulkImportService;
+    private final ObjectMapper objectMapper;
 
-    public ClientController(ClientService clientService) {
+    public ClientController(ClientService clientService, BulkImportService bulkImportService,
+            ObjectMapper objectMapper) {
         this.clientService = clientService;
+        this.bulkImportService = bulkImportService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -28,10 +58,54 @@ public class ClientController {
         return new ResponseEntity<>(clientService.createClient(dto), HttpStatus.CREATED);
     }
 
+    /**
+     * Création en masse (Admin uniquement) depuis un tableau JSON de
+     * {@link ClientRequestDTO} ou un fichier CSV ({@code text/csv}) dont
+     * l'en-tête porte les mêmes noms de champs. Retourne le résultat de
+     * chaque ligne.
+     */
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, "text/csv" })
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkImportResponseDTO bulkCreateClients(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) {
+        return bulkImportService.importClients(body, contentType);
+    }
+
+    /**
+     * Liste paginée des clients (Admin uniquement) : {@code page}, {@code size}
+     * (100 par défaut, 1000 max) et {@code sort} (ex. {@code lastName,asc}),
+     * départagé par l'ID. {@code fields} restreint les champs renvoyés ; les
+     * comptes ne sont chargés que si {@code accounts} en fait partie. L'en-tête
+     * {@code X-Has-Next} indique s'il existe une page suivante.
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<ClientResponseDTO> getAllClients() {
-        return clientService.getAllClients();
+    public ResponseEntity<List<?>> getAllClients(
+            @PageableDefault(size = DEFAULT_PAGE_SIZE) Pageable pageable,
+            @RequestParam(required = false) Set<String> fields) {
+        if (fields != null && !FIELDS.containsAll(fields)) {
+            throw new BadRequestException(
+                    "Champs inconnus dans fields (id, firstName, lastName, email, status, accounts)");
+        }
+        Slice<ClientResponseDTO> page = clientService.getClients(toPageRequest(pageable),
+                fields == null || fields.contains("accounts"));
+        List<?> body = fields == null
+                ? page.getContent()
+                : page.getContent().stream().map(client -> selectFields(client, fields)).toList();
+        return ResponseEntity.ok()
+                .header(HAS_NEXT_HEADER, String.valueOf(page.hasNext()))
+                .body(body);
+    }
+
+    /**
+     * Recherche par début de prénom, nom, email ou téléphone (Admin
+     * uniquement) ; chaque mot de {@code q} doit correspondre.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<ClientSearchResultDTO> searchClients(@RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return clientService.searchClients(q, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
     }
 
     @GetMapping("/{id}")
@@ -71,4 +145,22 @@ public class ClientController {
     public void deleteClient(@PathVariable Long id) {
         clientService.deleteClient(id);
     }
+
+    private static Pageable toPageRequest(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_FIELDS.contains(order.getProperty())) {
+                throw new BadRequestException("Tri impossible sur le champ : " + order.getProperty());
+            }
+        }
+        Sort sort = pageable.getSort().getOrderFor("id") != null
+                ? pageable.getSort()
+                : pageable.getSort().and(Sort.by("id"));
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE), sort);
+    }
+
+    private Map<String, Object> selectFields(ClientResponseDTO client, Set<String> fields) {
+        Map<String, Object> values = objectMapper.convertValue(client, FIELD_MAP);
+        values.keySet().retainAll(fields);
+        return values;
+    }
 }
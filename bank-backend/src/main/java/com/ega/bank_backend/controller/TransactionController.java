@@ -1,13 +1,26 @@
 package com.ega.bank_backend.controller;
 
+import com.ega.bank_backend.dto.BatchTransactionRequestDTO;
+import com.ega.bank_backend.dto.BatchTransactionResponseDTO;
+import com.ega.bank_backend.dto.TransactionPageDTO;
 import com.ega.bank_backend.dto.TransactionRequestDTO;
 import com.ega.bank_backend.dto.TransactionResponseDTO;
+import com.ega.bank_backend.service.BatchTransactionService;
+import com.ega.bank_backend.service.IdempotencyService;
 import com.ega.bank_backend.service.TransactionService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -15,62 +28,145 @@ import java.util.List;
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final TransactionService transactionService;
+    private final BatchTransactionService batchTransactionService;
+    private final IdempotencyService idempotencyService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+            BatchTransactionService batchTransactionService, IdempotencyService idempotencyService) {
         this.transactionService = transactionService;
+        this.batchTransactionService = batchTransactionService;
+        this.idempotencyService = idempotencyService;
     }
 
+    /**
+     * Les opérations monétaires acceptent un en-tête {@code Idempotency-Key} :
+     * un rejeu avec la même clé renvoie la réponse initiale sans réécrire. La
+     * clé est complétée dans la transaction de l'opération.
+     */
     @PostMapping("/deposit")
     @PreAuthorize("hasRole('ADMIN')")
-    public String deposit(@Valid @RequestBody TransactionRequestDTO dto) {
-        transactionService.deposit(dto);
-        return "Dépôt effectué avec succès";
+    public String deposit(@Valid @RequestBody TransactionRequestDTO dto,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            Authentication authentication) {
+        return idempotencyService.execute("deposit", authentication.getName(), idempotencyKey, dto.fingerprint(),
+                "Dépôt effectué avec succès", completion -> transactionService.deposit(dto, completion));
     }
 
     @PostMapping("/withdraw")
     @PreAuthorize("hasRole('ADMIN')")
-    public String withdraw(@Valid @RequestBody TransactionRequestDTO dto) {
-        transactionService.withdraw(dto);
-        return "Retrait effectué avec succès";
+    public String withdraw(@Valid @RequestBody TransactionRequestDTO dto,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            Authentication authentication) {
+        return idempotencyService.execute("withdraw", authentication.getName(), idempotencyKey, dto.fingerprint(),
+                "Retrait effectué avec succès", completion -> transactionService.withdraw(dto, completion));
     }
 
     @PostMapping("/transfer")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('CLIENT') and @clientSecurity.isAccountOwner(authentication, #dto.accountNumber()))")
-    public String transfer(@Valid @RequestBody TransactionRequestDTO dto) {
-        transactionService.transfer(dto);
-        return "Virement effectué avec succès";
+    public String transfer(@Valid @RequestBody TransactionRequestDTO dto,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            Authentication authentication) {
+        return idempotencyService.execute("transfer", authentication.getName(), idempotencyKey, dto.fingerprint(),
+                "Virement effectué avec succès", completion -> transactionService.transfer(dto, completion));
     }
 
     /**
-     * Liste globale de toutes les transactions (Admin uniquement).
-     * Retourne des DTOs pour éviter la récursion infinie.
+     * Applique un lot d'opérations (Admin uniquement), par tranches de
+     * {@code chunkSize} validées chacune en une transaction. Retourne le
+     * résultat de chaque opération.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public BatchTransactionResponseDTO batch(@Valid @RequestBody BatchTransactionRequestDTO dto) {
+        return batchTransactionService.applyBatch(dto);
+    }
+
+    /**
+     * Liste globale des transactions (Admin uniquement), paginée par clé.
+     * Retourne des DTOs pour éviter la récursion infinie ; le curseur de la
+     * page suivante est renvoyé dans l'en-tête {@code X-Next-Cursor}.
      */
     @GetMapping("/history")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<TransactionResponseDTO> getAllHistory() {
-        return transactionService.getAllTransactionsDTO();
+    public ResponseEntity<List<TransactionResponseDTO>> getAllHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        return toResponse(transactionService.getAllTransactionsDTO(cursor, clampPageSize(size)));
     }
 
     /**
-     * Historique des transactions d'un compte spécifique.
+     * Export intégral de l'historique en NDJSON (Admin uniquement), écrit au fil
+     * de la lecture en base.
+     */
+    @GetMapping(value = "/history/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllHistory() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> transactionService.writeHistoryNdjson(null, null, null, out));
+    }
+
+    /**
+     * Historique des transactions d'un compte spécifique, paginé par clé.
      * Retourne des DTOs pour éviter la récursion infinie.
      */
     @GetMapping("/history/{accountNumber}")
     @PreAuthorize("hasRole('ADMIN') or @clientSecurity.isAccountOwner(authentication, #accountNumber)")
-    public List<TransactionResponseDTO> getHistory(
+    public ResponseEntity<List<TransactionResponseDTO>> getHistory(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        return toResponse(transactionService.getHistoryDTO(accountNumber, start, end, cursor, clampPageSize(size)));
+    }
+
+    @GetMapping(value = "/history/{accountNumber}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or @clientSecurity.isAccountOwner(authentication, #accountNumber)")
+    public ResponseEntity<StreamingResponseBody> streamHistory(
             @PathVariable String accountNumber,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        return transactionService.getHistoryDTO(accountNumber, start, end);
+        Long accountId = transactionService.getAccountId(accountNumber);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> transactionService.writeHistoryNdjson(accountId, start, end, out));
     }
 
+    /**
+     * Relevé texte d'un compte, envoyé ligne par ligne au fil de la lecture.
+     */
     @GetMapping("/statement/{accountNumber}")
     @PreAuthorize("hasRole('ADMIN') or @clientSecurity.isAccountOwner(authentication, #accountNumber)")
-    public String getStatement(
+    public ResponseEntity<StreamingResponseBody> getStatement(
             @PathVariable String accountNumber,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        return transactionService.generateBankStatement(accountNumber, start, end);
+        transactionService.getAccountId(accountNumber);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(out -> {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                    transactionService.writeBankStatement(accountNumber, start, end, writer);
+                    writer.flush();
+                });
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static ResponseEntity<List<TransactionResponseDTO>> toResponse(TransactionPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 }
@@ -0,0 +1,13 @@
+package com.ega.bank_backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Solde d'un compte à un instant donné.
+ */
+public record BalanceResponseDTO(
+        String accountNumber,
+        LocalDateTime at,
+        BigDecimal balance) {
+}
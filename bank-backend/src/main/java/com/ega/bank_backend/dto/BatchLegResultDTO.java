@@ -0,0 +1,16 @@
+package com.ega.bank_backend.dto;
+
+/**
+ * Résultat d'une opération du lot, repérée par sa position dans la requête.
+ */
+public record BatchLegResultDTO(int index, Status status, String message) {
+
+    public enum Status {
+        /** L'opération a été validée. */
+        APPLIED,
+        /** L'opération est invalide (compte inconnu, solde insuffisant...) ; sa tranche est annulée. */
+        REJECTED,
+        /** L'opération était valide mais sa tranche a été annulée. */
+        ROLLED_BACK
+    }
+}
@@ -0,0 +1,36 @@
+package com.ega.bank_backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Lot d'opérations. Chaque tranche de {@code chunkSize} opérations
+ * ({@value #DEFAULT_CHUNK_SIZE} par défaut, {@value #MAX_CHUNK_SIZE} au plus)
+ * est validée indépendamment : une tranche garde les verrous de tous ses
+ * comptes jusqu'à son commit. Un lot compte au plus {@value #MAX_LEGS}
+ * opérations.
+ */
+public record BatchTransactionRequestDTO(
+        @NotEmpty(message = "Le lot doit contenir au moins une opération")
+        @Size(max = MAX_LEGS, message = "Le lot ne peut pas dépasser " + MAX_LEGS + " opérations")
+        List<@Valid BatchLegDTO> legs,
+
+        @Min(value = 1, message = "La taille de tranche doit être au moins 1")
+        @Max(value = MAX_CHUNK_SIZE, message = "La taille de tranche ne peut pas dépasser " + MAX_CHUNK_SIZE)
+        Integer chunkSize) {
+
+    public static final int MAX_LEGS = 1000;
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+    public static final int MAX_CHUNK_SIZE = 200;
+
+    /**
+     * Taille de tranche demandée, ou {@value #DEFAULT_CHUNK_SIZE}.
+     */
+    public int effectiveChunkSize() {
+        return chunkSize != null ? chunkSize : DEFAULT_CHUNK_SIZE;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ega.bank_backend.dto;
+
+import java.util.List;
+
+public record BatchTransactionResponseDTO(
+        int applied,
+        int notApplied,
+        List<BatchLegResultDTO> results) {
+}
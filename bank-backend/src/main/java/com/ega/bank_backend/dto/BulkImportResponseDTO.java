@@ -0,0 +1,9 @@
+package com.ega.bank_backend.dto;
+
+import java.util.List;
+
+public record BulkImportResponseDTO(
+        int imported,
+        int rejected,
+        List<BulkImportRowDTO> rows) {
+}
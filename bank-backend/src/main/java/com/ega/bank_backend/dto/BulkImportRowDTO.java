@@ -0,0 +1,16 @@
+package com.ega.bank_backend.dto;
+
+/**
+ * Résultat d'une ligne d'import, repérée par sa position dans le fichier
+ * (0 pour le premier élément du tableau JSON ou la première ligne CSV après
+ * l'en-tête). {@code id} et {@code accountNumber} identifient l'entité créée.
+ */
+public record BulkImportRowDTO(int index, Status status, Long id, String accountNumber, String message) {
+
+    public enum Status {
+        /** La ligne a été enregistrée. */
+        IMPORTED,
+        /** La ligne est invalide ou sa tranche a échoué ; rien n'a été enregistré pour elle. */
+        REJECTED
+    }
+}
@@ -0,0 +1,9 @@
+package com.ega.bank_backend.dto;
+
+public record ClientSearchResultDTO(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        String phoneNumber) {
+}
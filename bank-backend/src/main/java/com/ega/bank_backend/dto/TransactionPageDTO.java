@@ -0,0 +1,11 @@
+package com.ega.bank_backend.dto;
+
+import java.util.List;
+
+/**
+ * Page d'historique ; {@code nextCursor} vaut {@code null} sur la dernière page.
+ */
+public record TransactionPageDTO(
+        List<TransactionResponseDTO> items,
+        String nextCursor) {
+}
@@ -14,4 +14,17 @@ public record TransactionRequestDTO(
 
         String targetAccountNumber // Uniquement pour les virements
 ) {
+
+    /**
+     * Forme canonique comparée par l'idempotence : le montant sans zéros non
+     * significatifs ({@code 100} et {@code 100.00} sont la même requête), puis
+     * les comptes source et destination et le libellé, dans un ordre fixe.
+     */
+    public String fingerprint() {
+        return String.join("\n",
+                String.valueOf(accountNumber),
+                amount != null ? amount.stripTrailingZeros().toPlainString() : "null",
+                String.valueOf(targetAccountNumber),
+                String.valueOf(description));
+    }
 }
@@ -1,6 +1,7 @@
 package com.ega.bank_backend.dto;
 
 import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionDirection;
 import com.ega.bank_backend.entity.TransactionType;
 
 import java.math.BigDecimal;
@@ -19,7 +20,8 @@ public record TransactionResponseDTO(
         String description,
         String accountNumber,
         String targetAccountNumber,
-        String ownerName) {
+        String ownerName,
+        TransactionDirection direction) {
     /**
      * Convertit une entité Transaction en DTO.
      * Mapping manuel propre et explicite.
@@ -44,6 +46,7 @@ public record TransactionResponseDTO(
                 transaction.getDescription(),
                 accountNum,
                 transaction.getTargetAccountNumber(),
-                owner);
+                owner,
+                transaction.getDirection());
     }
 }
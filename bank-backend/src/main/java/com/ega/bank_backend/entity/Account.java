@@ -8,11 +8,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = @Index(name = "idx_accounts_client_id", columnList = "client_id"))
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -25,7 +26,10 @@ public class Account {
 
     private BigDecimal balance;
 
-    @ManyToOne
+    @Version
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id")
     private Client owner;
 
@@ -33,6 +37,10 @@ public class Account {
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL)
     private List<Transaction> transactions = new ArrayList<>();
 
+    @JsonIgnore
+    @OneToMany(mappedBy = "account", cascade = CascadeType.REMOVE)
+    private List<BalanceSnapshot> snapshots = new ArrayList<>();
+
     public Account() {
         this.balance = BigDecimal.ZERO;
         this.createdAt = LocalDateTime.now();
@@ -79,6 +87,14 @@ public class Account {
         this.balance = balance;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Client getOwner() {
         return owner;
     }
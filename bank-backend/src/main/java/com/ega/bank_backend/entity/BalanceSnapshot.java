@@ -0,0 +1,57 @@
+package com.ega.bank_backend.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Solde d'un compte relevé à l'instant {@code takenAt}, sous le verrou du
+ * compte : il inclut toutes les opérations horodatées jusqu'à {@code takenAt}
+ * et aucune opération postérieure.
+ */
+@Entity
+@Table(name = "balance_snapshots", indexes = @Index(name = "idx_balance_snapshots_account_taken_at",
+        columnList = "account_id, taken_at"))
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshot_seq")
+    @SequenceGenerator(name = "balance_snapshot_seq", sequenceName = "balance_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "account_id")
+    private Account account;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    protected BalanceSnapshot() {
+    }
+
+    public BalanceSnapshot(Account account, BigDecimal balance, LocalDateTime takenAt) {
+        this.account = account;
+        this.balance = balance;
+        this.takenAt = takenAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+}
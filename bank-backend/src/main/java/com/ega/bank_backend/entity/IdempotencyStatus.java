@@ -0,0 +1,6 @@
+package com.ega.bank_backend.entity;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
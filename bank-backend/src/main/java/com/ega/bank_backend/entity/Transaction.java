@@ -4,27 +4,44 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * Les index suivent l'ordre des lectures d'historique, toutes triées par
+ * (timestamp, id) : la base parcourt une plage d'index au lieu de filtrer
+ * puis trier la table.
+ */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_timestamp", columnList = "account_id, timestamp, id"),
+        @Index(name = "idx_transactions_timestamp", columnList = "timestamp, id")
+})
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
     private TransactionType type;
 
+    @Enumerated(EnumType.STRING)
+    private TransactionDirection direction;
+
     private BigDecimal amount;
 
     private LocalDateTime timestamp;
 
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     private Account account;
 
+    // Même colonne, en lecture seule : les requêtes filtrent sur la clé étrangère
+    // sans passer par la jointure du compte (voir TransactionRepository).
+    @Column(name = "account_id", insertable = false, updatable = false)
+    private Long accountId;
+
     @Column(name = "target_account_number")
     private String targetAccountNumber; // For transfers
 
@@ -49,6 +66,14 @@ public class Transaction {
         this.type = type;
     }
 
+    public TransactionDirection getDirection() {
+        return direction;
+    }
+
+    public void setDirection(TransactionDirection direction) {
+        this.direction = direction;
+    }
+
     public BigDecimal getAmount() {
         return amount;
     }
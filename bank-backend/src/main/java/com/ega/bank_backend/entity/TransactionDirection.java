@@ -0,0 +1,9 @@
+package com.ega.bank_backend.entity;
+
+/**
+ * Sens de l'opération pour le compte qui la porte : un virement produit une
+ * ligne DEBIT côté émetteur et une ligne CREDIT côté bénéficiaire.
+ */
+public enum TransactionDirection {
+    CREDIT, DEBIT
+}
@@ -0,0 +1,7 @@
+package com.ega.bank_backend.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
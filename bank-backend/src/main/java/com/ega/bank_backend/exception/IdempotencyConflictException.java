@@ -0,0 +1,7 @@
+package com.ega.bank_backend.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
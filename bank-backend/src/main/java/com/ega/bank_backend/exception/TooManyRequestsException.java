@@ -0,0 +1,7 @@
+package com.ega.bank_backend.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ega.bank_backend.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure les exécutions SQL de chaque requête HTTP :
+ * {@code bank.sql.statements} (nombre) et {@code bank.sql.time} (durée), par
+ * endpoint. Une requête qui dépasse {@code bank.sql.query-budget} exécutions
+ * est journalisée. Les en-têtes de réponse sont posés par
+ * {@link SqlDiagnosticsHeaderAdvice} avant l'écriture d'un corps, et ici, en
+ * fin de requête, pour les réponses encore non engagées (sans corps, erreur,
+ * réponse en flux dont l'écriture n'a pas commencé).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlDiagnosticsFilter.class);
+
+    private final MeterRegistry registry;
+    private final long queryBudget;
+    private final ConcurrentHashMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public SqlDiagnosticsFilter(MeterRegistry registry, @Value("${bank.sql.query-budget:20}") long queryBudget) {
+        this.registry = registry;
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.Stats stats = SqlStatementCounter.end();
+            if (!response.isCommitted()) {
+                response.setHeader(SqlDiagnosticsHeaderAdvice.QUERY_COUNT_HEADER, Long.toString(stats.getCount()));
+                response.setHeader(SqlDiagnosticsHeaderAdvice.QUERY_TIME_HEADER,
+                        Long.toString(stats.getElapsedMillis()));
+            }
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Stats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Meters endpoint = meters.computeIfAbsent(request.getMethod() + ' ' + uri,
+                key -> new Meters(registry, request.getMethod(), uri));
+        endpoint.statements().record(stats.getCount());
+        endpoint.time().record(stats.getElapsedNanos(), TimeUnit.NANOSECONDS);
+        if (stats.getCount() > queryBudget) {
+            log.warn("{} {} : {} requêtes SQL (budget {}), {} ms en base",
+                    request.getMethod(), request.getRequestURI(), stats.getCount(), queryBudget,
+                    stats.getElapsedMillis());
+        }
+    }
+
+    private record Meters(DistributionSummary statements, Timer time) {
+        Meters(MeterRegistry registry, String method, String uri) {
+            this(DistributionSummary.builder("bank.sql.statements")
+                            .description("Exécutions SQL par requête HTTP")
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .register(registry),
+                    Timer.builder("bank.sql.time")
+                            .description("Temps passé en base par requête HTTP")
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .register(registry));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ega.bank_backend.monitoring;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Ajoute aux réponses les en-têtes {@code X-Query-Count} et
+ * {@code X-Query-Time-Ms} : exécutions SQL de la requête jusqu'à l'écriture
+ * du corps. Ils doivent être posés avant que la réponse ne soit engagée, d'où
+ * ce point d'accroche plutôt que la fin du filtre ; {@link SqlDiagnosticsFilter}
+ * couvre les réponses qui ne passent pas par ici (sans corps, en flux).
+ */
+@RestControllerAdvice
+public class SqlDiagnosticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        SqlStatementCounter.Stats stats = SqlStatementCounter.current();
+        if (stats != null) {
+            response.getHeaders().set(QUERY_COUNT_HEADER, Long.toString(stats.getCount()));
+            response.getHeaders().set(QUERY_TIME_HEADER, Long.toString(stats.getElapsedMillis()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,179 @@
+package com.ega.bank_backend.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compte les exécutions JDBC et leur durée pour le thread courant, entre
+ * {@link #begin()} et {@link #end()} (une requête HTTP, un test). Une exécution
+ * de lot ({@code executeBatch}) compte pour une seule exécution : c'est le
+ * nombre d'allers-retours avec la base qui révèle un N+1.
+ * <p>
+ * Les portées s'imbriquent : à sa fermeture, une portée ajoute ses compteurs
+ * à la portée englobante. Hors d'une portée ouverte (tâches planifiées, fin
+ * d'une réponse en flux sur un autre thread), les exécutions ne sont pas
+ * comptées.
+ */
+public final class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Ouvre une portée de comptage sur le thread courant. Le texte des requêtes
+     * n'est conservé que si la portée englobante le conserve.
+     */
+    public static Stats begin() {
+        Stats parent = CURRENT.get();
+        return open(parent, parent != null && parent.statements != null);
+    }
+
+    /**
+     * Ouvre une portée qui conserve aussi le texte et les paramètres des
+     * requêtes exécutées (diagnostic, tests).
+     */
+    public static Stats beginRecording() {
+        return open(CURRENT.get(), true);
+    }
+
+    /**
+     * Compteurs de la portée ouverte, {@code null} s'il n'y en a pas.
+     */
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ferme la portée courante et la retourne.
+     */
+    public static Stats end() {
+        Stats stats = CURRENT.get();
+        if (stats == null) {
+            return null;
+        }
+        if (stats.parent != null) {
+            stats.parent.add(stats);
+            CURRENT.set(stats.parent);
+        } else {
+            CURRENT.remove();
+        }
+        return stats;
+    }
+
+    private static Stats open(Stats parent, boolean recordQueries) {
+        Stats stats = new Stats(parent, recordQueries);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.startedAt = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.count++;
+            stats.elapsedNanos += System.nanoTime() - stats.startedAt;
+            if (stats.statements != null) {
+                for (QueryInfo query : queryInfoList) {
+                    stats.statements.add(new Statement(query.getQuery(), firstParameters(query)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Valeurs du premier jeu de paramètres (le seul hors exécution de lot),
+     * dans l'ordre des {@code ?}.
+     */
+    private static List<Object> firstParameters(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        return query.getParametersList().get(0).stream()
+                .filter(operation -> operation.getArgs().length >= 2 && operation.getArgs()[0] instanceof Integer)
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> ParameterSetOperation.isSetNullParameterOperation(operation)
+                        ? null
+                        : operation.getArgs()[1])
+                .toList();
+    }
+
+    /**
+     * Requête exécutée et ses paramètres, pour la rejouer ou l'expliquer.
+     */
+    public record Statement(String sql, List<Object> parameters) {
+
+        public Object[] parameterArray() {
+            return parameters.toArray();
+        }
+
+        @Override
+        public String toString() {
+            return parameters.isEmpty() ? sql : sql + " " + Arrays.toString(parameterArray());
+        }
+    }
+
+    /**
+     * Compteurs d'une portée ; lus et écrits par un seul thread.
+     */
+    public static final class Stats {
+        private final Stats parent;
+        private final List<Statement> statements;
+        private long count;
+        private long elapsedNanos;
+        private long startedAt;
+
+        private Stats(Stats parent, boolean recordQueries) {
+            this.parent = parent;
+            this.statements = recordQueries ? new ArrayList<>() : null;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        /**
+         * Texte des requêtes exécutées, vide si la portée ne les conserve pas.
+         */
+        public List<String> getQueries() {
+            return getStatements().stream().map(Statement::sql).toList();
+        }
+
+        /**
+         * Requêtes exécutées avec leurs paramètres, vide si la portée ne les
+         * conserve pas.
+         */
+        public List<Statement> getStatements() {
+            return statements != null ? statements : List.of();
+        }
+
+        private void add(Stats child) {
+            count += child.count;
+            elapsedNanos += child.elapsedNanos;
+            if (statements != null && child.statements != null) {
+                statements.addAll(child.statements);
+            }
+        }
+    }
+}
@@ -1,9 +1,82 @@
 package com.ega.bank_backend.repository;
 
 import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.ClientStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
+
+    /**
+     * Comptes d'un ensemble de clients en une requête (liste paginée des clients).
+     */
+    @Query("select a from Account a where a.owner.id in :ownerIds order by a.id")
+    List<Account> findByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+
+    @Query("select a.accountNumber from Account a")
+    List<String> findAllAccountNumbers();
+
+    // Le titulaire est chargé paresseusement : la liste complète le joint d'emblée.
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    List<Account> findAll();
+
+    @Query("select a from Account a join fetch a.owner o join o.user u where u.username = :username order by a.id")
+    List<Account> findByOwnerUsername(@Param("username") String username);
+
+    @Query("select a from Account a join fetch a.owner o left join fetch o.user "
+            + "where a.accountNumber in :accountNumbers")
+    List<Account> findWithOwnerByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Query("select a.id as id, a.balance as balance, a.version as version, o.status as ownerStatus, "
+            + "u.username as ownerUsername "
+            + "from Account a join a.owner o left join o.user u where a.accountNumber = :accountNumber")
+    Optional<LedgerView> findLedgerViewByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("select a.id as id, a.balance as balance from Account a where a.id in :ids")
+    List<BalanceView> findBalancesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Débite le compte en une seule instruction, à condition que sa version
+     * soit encore celle qui a été lue et que le solde suffise. Retourne le
+     * nombre de lignes modifiées : 0 signale une écriture concurrente (ou un
+     * solde devenu insuffisant depuis la lecture), à traiter comme un conflit
+     * de version.
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1 "
+            + "where a.id = :id and a.version = :version and a.balance >= :amount")
+    int debit(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("version") Long version);
+
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1 "
+            + "where a.id = :id and a.version = :version")
+    int credit(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("version") Long version);
+
+    interface LedgerView {
+        Long getId();
+
+        BigDecimal getBalance();
+
+        Long getVersion();
+
+        ClientStatus getOwnerStatus();
+
+        String getOwnerUsername();
+    }
+
+    interface BalanceView {
+        Long getId();
+
+        BigDecimal getBalance();
+    }
 }
@@ -0,0 +1,42 @@
+package com.ega.bank_backend.repository;
+
+import com.ega.bank_backend.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByAccountIdAndTakenAtLessThanOrderByTakenAtDesc(Long accountId,
+            LocalDateTime at);
+
+    /**
+     * Supprime les relevés antérieurs à {@code before}, sauf le dernier de
+     * chaque compte : il sert de point de départ aux soldes récents et évite
+     * de relever à nouveau les comptes sans mouvement.
+     */
+    @Modifying
+    @Query("delete from BalanceSnapshot s where s.takenAt < :before and s.takenAt < "
+            + "(select max(l.takenAt) from BalanceSnapshot l where l.account = s.account)")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+
+    /**
+     * Comptes ayant au moins une opération postérieure à leur dernier relevé
+     * (ou jamais relevés) : les autres n'ont pas besoin d'un nouveau relevé.
+     */
+    @Query("select a.id as id, a.accountNumber as accountNumber from Account a "
+            + "where exists (select t.id from Transaction t where t.account = a and t.timestamp > "
+            + "coalesce((select max(s.takenAt) from BalanceSnapshot s where s.account = a), :origin))")
+    List<SnapshotCandidate> findAccountsToSnapshot(@Param("origin") LocalDateTime origin);
+
+    interface SnapshotCandidate {
+        Long getId();
+
+        String getAccountNumber();
+    }
+}
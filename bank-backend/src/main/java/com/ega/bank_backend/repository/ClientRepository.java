@@ -1,9 +1,46 @@
 package com.ega.bank_backend.repository;
 
+import com.ega.bank_backend.dto.ClientSearchResultDTO;
 import com.ega.bank_backend.entity.Client;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ClientRepository extends JpaRepository<Client, Long> {
     Optional<Client> findByEmail(String email);
+
+    Slice<Client> findAllBy(Pageable pageable);
+
+    @Query("select new com.ega.bank_backend.dto.ClientSearchResultDTO(c.id, c.firstName, c.lastName, c.email, "
+            + "c.phoneNumber) from Client c")
+    List<ClientSearchResultDTO> findAllForSearch();
+
+    @Query("select c.email from Client c where c.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select c from Client c left join fetch c.user where c.id in :ids")
+    List<Client> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select c from Client c join c.user u left join fetch c.accounts where u.username = :username")
+    Optional<Client> findByUsername(@Param("username") String username);
+
+    /**
+     * Une ligne par compte du client de l'utilisateur (une seule, sans numéro,
+     * s'il n'a aucun compte) ; aucune ligne si l'utilisateur n'a pas de client.
+     */
+    @Query("select c.id as clientId, a.accountNumber as accountNumber "
+            + "from Client c join c.user u left join c.accounts a where u.username = :username")
+    List<OwnershipRow> findOwnershipByUsername(@Param("username") String username);
+
+    interface OwnershipRow {
+        Long getClientId();
+
+        String getAccountNumber();
+    }
 }
@@ -0,0 +1,37 @@
+package com.ega.bank_backend.repository;
+
+import com.ega.bank_backend.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Passe à {@code COMPLETED} la clé réservée à {@code createdAt}, si elle
+     * n'a pas été libérée ou reprise entre-temps.
+     *
+     * @return 1 si la clé a été complétée, 0 sinon
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = com.ega.bank_backend.entity.IdempotencyStatus.COMPLETED, "
+            + "r.response = :response where r.id = :id and r.createdAt = :createdAt "
+            + "and r.status = com.ega.bank_backend.entity.IdempotencyStatus.IN_PROGRESS")
+    int markCompleted(@Param("id") String id, @Param("response") String response,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Supprime la clé réservée à {@code createdAt}, sans toucher à une clé
+     * reprise depuis par une autre requête.
+     */
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.createdAt = :createdAt")
+    int deleteReservation(@Param("id") String id, @Param("createdAt") LocalDateTime createdAt);
+}
@@ -1,10 +1,82 @@
 package com.ega.bank_backend.repository;
 
+import com.ega.bank_backend.dto.TransactionResponseDTO;
 import com.ega.bank_backend.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Les lectures d'historique renvoient directement des
+ * {@link TransactionResponseDTO} (expression constructeur) : compte et
+ * titulaire sont joints dans le même SELECT, sans charger d'entité. Le
+ * filtre par compte porte sur la clé étrangère ({@code t.accountId}) : écrit
+ * {@code t.account.id}, il viserait l'identifiant du compte joint et la base
+ * n'utiliserait pas l'index (account_id, timestamp, id).
+ */
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByAccountIdAndTimestampBetween(Long accountId, LocalDateTime start, LocalDateTime end);
+
+    String SELECT_DTO = "select new com.ega.bank_backend.dto.TransactionResponseDTO("
+            + "t.id, t.type, t.amount, t.timestamp, t.description, a.accountNumber, t.targetAccountNumber, "
+            + "concat(o.firstName, ' ', o.lastName), t.direction) "
+            + "from Transaction t left join t.account a left join a.owner o ";
+
+    /**
+     * Somme des montants signés (crédits moins débits) des opérations
+     * horodatées dans ]from, to[.
+     */
+    @Query("select coalesce(sum(case when t.direction = com.ega.bank_backend.entity.TransactionDirection.DEBIT "
+            + "then -t.amount else t.amount end), 0) from Transaction t "
+            + "where t.accountId = :accountId and t.timestamp > :from and t.timestamp < :to")
+    BigDecimal sumSignedAmountsBetween(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("select coalesce(sum(case when t.direction = com.ega.bank_backend.entity.TransactionDirection.DEBIT "
+            + "then -t.amount else t.amount end), 0) from Transaction t "
+            + "where t.accountId = :accountId and t.timestamp < :to")
+    BigDecimal sumSignedAmountsBefore(@Param("accountId") Long accountId, @Param("to") LocalDateTime to);
+
+    // Pagination par clé sur (timestamp, id) : le coût d'une page ne dépend pas de sa position.
+    // La borne « t.timestamp >= :timestamp » est redondante mais donne à la base le début
+    // de la plage d'index à parcourir, ce qu'elle ne déduit pas du OR.
+
+    @Query(SELECT_DTO + "order by t.timestamp, t.id")
+    List<TransactionResponseDTO> findFirstPage(Pageable pageable);
+
+    @Query(SELECT_DTO + "where t.timestamp >= :timestamp "
+            + "and (t.timestamp > :timestamp or t.id > :id) order by t.timestamp, t.id")
+    List<TransactionResponseDTO> findPageAfter(@Param("timestamp") LocalDateTime timestamp, @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * Page de l'historique d'un compte jusqu'à {@code end}, après le curseur
+     * (timestamp, id). Pour la première page, le curseur est (start, 0).
+     */
+    @Query(SELECT_DTO + "where t.accountId = :accountId and t.timestamp <= :end "
+            + "and t.timestamp >= :timestamp and (t.timestamp > :timestamp or t.id > :id) "
+            + "order by t.timestamp, t.id")
+    List<TransactionResponseDTO> findAccountPageAfter(@Param("accountId") Long accountId,
+            @Param("end") LocalDateTime end, @Param("timestamp") LocalDateTime timestamp, @Param("id") Long id,
+            Pageable pageable);
+
+    // Curseurs en lecture seule (forward-only) pour l'export en flux.
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "order by t.timestamp, t.id")
+    Stream<TransactionResponseDTO> streamAll();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "where t.accountId = :accountId "
+            + "and t.timestamp between :start and :end order by t.timestamp, t.id")
+    Stream<TransactionResponseDTO> streamByAccount(@Param("accountId") Long accountId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
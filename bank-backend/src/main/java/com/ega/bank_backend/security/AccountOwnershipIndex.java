@@ -0,0 +1,106 @@
+package com.ega.bank_backend.security;
+
+import com.ega.bank_backend.repository.ClientRepository;
+import com.ega.bank_backend.service.VersionStripes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Index mémoire « utilisateur → client et numéros de compte » utilisé par les
+ * contrôles {@code @clientSecurity} des {@code @PreAuthorize} : une fois
+ * chargé, un contrôle de propriété est une simple recherche dans un ensemble.
+ * <p>
+ * Même invalidation que le cache des portefeuilles ({@link VersionStripes}),
+ * après le commit d'une création de compte ou d'une suppression de client.
+ */
+@Component
+public class AccountOwnershipIndex implements MeterBinder {
+
+    private final ClientRepository clientRepository;
+    private final Cache<String, Entry> cache;
+    private final VersionStripes versions = new VersionStripes();
+
+    /**
+     * @param size nombre maximal d'utilisateurs gardés en cache ; 0 désactive
+     *             le cache
+     */
+    public AccountOwnershipIndex(ClientRepository clientRepository,
+            @Value("${bank.ownership-index.size:100000}") long size,
+            @Value("${bank.ownership-index.ttl:PT1H}") Duration ttl) {
+        this.clientRepository = clientRepository;
+        this.cache = size <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "ownership");
+        }
+    }
+
+    public Ownership get(String username) {
+        if (cache == null) {
+            return load(username);
+        }
+        long version = versions.current(username);
+        Entry cached = cache.getIfPresent(username);
+        if (cached != null && cached.version() == version) {
+            return cached.ownership();
+        }
+        Ownership ownership = load(username);
+        cache.put(username, new Entry(version, ownership));
+        return ownership;
+    }
+
+    public void invalidateAfterCommit(String username) {
+        versions.invalidateAfterCommit(username);
+    }
+
+    /**
+     * Invalide les entrées des utilisateurs donnés après le commit ; les noms
+     * {@code null} sont ignorés.
+     */
+    public void invalidateAfterCommit(Collection<String> usernames) {
+        versions.invalidateAfterCommit(usernames);
+    }
+
+    private Ownership load(String username) {
+        List<ClientRepository.OwnershipRow> rows = clientRepository.findOwnershipByUsername(username);
+        if (rows.isEmpty()) {
+            return Ownership.NONE;
+        }
+        Set<String> accountNumbers = new HashSet<>(rows.size() * 2);
+        for (ClientRepository.OwnershipRow row : rows) {
+            if (row.getAccountNumber() != null) {
+                accountNumbers.add(row.getAccountNumber());
+            }
+        }
+        return new Ownership(rows.get(0).getClientId(), Set.copyOf(accountNumbers));
+    }
+
+    /**
+     * Client rattaché à l'utilisateur ({@code null} pour un administrateur) et
+     * numéros de ses comptes.
+     */
+    public record Ownership(Long clientId, Set<String> accountNumbers) {
+        static final Ownership NONE = new Ownership(null, Set.of());
+    }
+
+    private record Entry(long version, Ownership ownership) {
+    }
+}
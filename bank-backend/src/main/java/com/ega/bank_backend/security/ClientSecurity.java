@@ -1,37 +1,28 @@
 package com.ega.bank_backend.security;
 
-import com.ega.bank_backend.repository.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 @Component("clientSecurity")
 public class ClientSecurity {
 
-    private final UserRepository userRepository;
+    private final AccountOwnershipIndex ownershipIndex;
 
-    public ClientSecurity(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public ClientSecurity(AccountOwnershipIndex ownershipIndex) {
+        this.ownershipIndex = ownershipIndex;
     }
 
     public boolean isOwner(Authentication authentication, Long clientId) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return false;
         }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .map(user -> user.getClient() != null && user.getClient().getId().equals(clientId))
-                .orElse(false);
+        return clientId != null && clientId.equals(ownershipIndex.get(authentication.getName()).clientId());
     }
 
     public boolean isAccountOwner(Authentication authentication, String accountNumber) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return false;
         }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .map(user -> user.getClient() != null &&
-                        user.getClient().getAccounts().stream()
-                                .anyMatch(acc -> acc.getAccountNumber().equals(accountNumber)))
-                .orElse(false);
+        return ownershipIndex.get(authentication.getName()).accountNumbers().contains(accountNumber);
     }
 }
@@ -1,29 +1,57 @@
 package com.ega.bank_backend.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Authentifie la requête à partir du jeton JWT seul : la signature et
+ * l'expiration sont vérifiées en une lecture, le rôle vient du claim signé
+ * {@code role}. La seule vérification supplémentaire est mémoire
+ * ({@link TokenRevocationRegistry}) : aucune requête SQL par appel.
+ * La durée de ce traitement est mesurée ({@code bank.auth.jwt}, par issue).
+ */
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final ConcurrentHashMap<String, List<GrantedAuthority>> authorities = new ConcurrentHashMap<>();
+    private final Timer authenticated;
+    private final Timer rejected;
 
-    public JwtFilter(JwtUtils jwtUtils, @Lazy UserDetailsService userDetailsService) {
+    public JwtFilter(JwtUtils jwtUtils, TokenRevocationRegistry revocationRegistry, MeterRegistry registry) {
         this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+        this.revocationRegistry = revocationRegistry;
+        this.authenticated = authTimer(registry, "authenticated");
+        this.rejected = authTimer(registry, "rejected");
+    }
+
+    private static Timer authTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("bank.auth.jwt")
+                .description("Authentification d'une requête par jeton JWT")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
     }
 
     @Override
@@ -31,25 +59,34 @@ public class JwtFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = jwtUtils.parseClaims(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException ex) {
+            // Jeton invalide ou expiré : la requête continue sans authentification.
+            rejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtUtils.extractUsername(jwt);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtUtils.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        String username = claims.getSubject();
+        String role = claims.get("role", String.class);
+        if (username != null && role != null && revocationRegistry.isAccepted(username, claims.getIssuedAt())) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    username, null, authorities.computeIfAbsent(role, r -> List.of(new SimpleGrantedAuthority(r))));
+            authToken.setDetails(DETAILS_SOURCE.buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            authenticated.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+            rejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
         filterChain.doFilter(request, response);
     }
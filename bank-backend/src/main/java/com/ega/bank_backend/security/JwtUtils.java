@@ -1,26 +1,71 @@
 package com.ega.bank_backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Création et vérification des jetons JWT.
+ * La clé HMAC et le parseur sont construits une fois. Les claims des jetons
+ * déjà vérifiés sont gardés dans un cache borné jusqu'à l'expiration du jeton :
+ * les requêtes suivantes d'une même session évitent la vérification HMAC et le
+ * décodage JSON. La clé du cache est le jeton lui-même (égalité exacte) et non
+ * une empreinte courte, qui exposerait à des collisions fabriquées.
+ */
 @Component
-public class JwtUtils {
+public class JwtUtils implements MeterBinder {
 
     private final String secret = "EgaBankSecretKeyForJwtAuthenticationMustBeLongEnough"; // In production, move to
                                                                                           // properties
     private final long expiration = 86400000; // 24h
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private final Key signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    private final Cache<String, Claims> verifiedClaims;
+
+    /**
+     * @param claimsCacheSize nombre maximal de jetons vérifiés gardés en
+     *                        cache ; 0 désactive le cache
+     */
+    public JwtUtils(@Value("${bank.jwt.claims-cache-size:10000}") long claimsCacheSize) {
+        this.verifiedClaims = claimsCacheSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Taux de succès du cache des jetons vérifiés ({@code cache="jwt.claims"}).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (verifiedClaims != null) {
+            CaffeineCacheMetrics.monitor(registry, verifiedClaims, "jwt.claims");
+        }
+    }
+
+    /**
+     * Durée de validité d'un jeton émis par {@link #generateToken}.
+     */
+    public Duration getTokenLifetime() {
+        return Duration.ofMillis(expiration);
     }
 
     public String extractUsername(String token) {
@@ -28,16 +73,29 @@ public class JwtUtils {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Vérifie la signature et l'expiration du jeton en une seule lecture et
+     * retourne ses claims (partagés : ne pas les modifier).
+     *
+     * @throws JwtException si le jeton est invalide ou expiré
+     */
+    public Claims parseClaims(String token) {
+        if (verifiedClaims == null) {
+            return parser.parseClaimsJws(token).getBody();
+        }
+        Claims cached = verifiedClaims.getIfPresent(token);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(token, claims);
+        }
+        return claims;
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -52,16 +110,37 @@ public class JwtUtils {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = parseClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * Une entrée expire au plus tard avec le jeton correspondant.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
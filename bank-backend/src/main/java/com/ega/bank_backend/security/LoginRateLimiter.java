@@ -0,0 +1,108 @@
+package com.ega.bank_backend.security;
+
+import com.ega.bank_backend.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitation du débit des tentatives de connexion et d'inscription, par nom
+ * d'utilisateur et par adresse IP (seaux à jetons). Le contrôle a lieu avant
+ * tout hachage BCrypt : une rafale (bourrage d'identifiants par exemple) est
+ * refusée sans consommer de CPU.
+ * <p>
+ * Les seaux sont gardés dans un cache borné, expirés après une période
+ * d'inactivité ; chaque seau est synchronisé séparément.
+ */
+@Component
+public class LoginRateLimiter implements MeterBinder {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final int usernameCapacity;
+    private final double usernameRefillPerNano;
+    private final int ipCapacity;
+    private final double ipRefillPerNano;
+    private final LongAdder rejected = new LongAdder();
+
+    public LoginRateLimiter(
+            @Value("${bank.auth.rate-limit.username.capacity:10}") int usernameCapacity,
+            @Value("${bank.auth.rate-limit.username.refill-per-minute:10}") int usernameRefillPerMinute,
+            @Value("${bank.auth.rate-limit.ip.capacity:50}") int ipCapacity,
+            @Value("${bank.auth.rate-limit.ip.refill-per-minute:60}") int ipRefillPerMinute,
+            @Value("${bank.auth.rate-limit.max-keys:100000}") long maxKeys) {
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerNano = usernameRefillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Consomme un jeton pour l'adresse IP puis pour le nom d'utilisateur.
+     *
+     * @throws TooManyRequestsException si l'un des deux seaux est vide
+     */
+    public void acquire(String username, String clientIp) {
+        if (clientIp != null && !bucket("ip:" + clientIp, ipCapacity, ipRefillPerNano).tryAcquire()) {
+            reject();
+        }
+        if (username != null && !bucket("user:" + username, usernameCapacity, usernameRefillPerNano).tryAcquire()) {
+            reject();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("bank.auth.rate_limit.rejected", this, LoginRateLimiter::getRejectedCount)
+                .description("Tentatives refusées par la limitation de débit")
+                .register(registry);
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private TokenBucket bucket(String key, int capacity, double refillPerNano) {
+        return buckets.get(key, k -> new TokenBucket(capacity, refillPerNano));
+    }
+
+    private void reject() {
+        rejected.increment();
+        throw new TooManyRequestsException("Trop de tentatives, veuillez réessayer plus tard");
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, double refillPerNano) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerNano;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
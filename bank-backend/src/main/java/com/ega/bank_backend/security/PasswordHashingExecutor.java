@@ -0,0 +1,119 @@
+package com.ega.bank_backend.security;
+
+import com.ega.bank_backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool dédié au hachage et à la vérification des mots de passe (BCrypt).
+ * Le nombre de hachages simultanés est borné par le nombre de threads, et
+ * l'attente par la capacité de la file : au-delà, la demande est refusée
+ * aussitôt (429) au lieu d'occuper les processeurs dont ont besoin les
+ * opérations bancaires.
+ */
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHashingExecutor(
+            @Value("${bank.auth.hashing.threads:0}") int threads,
+            @Value("${bank.auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${bank.auth.hashing.timeout:PT10S}") Duration timeout) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Exécute {@code task} sur le pool et attend son résultat ; les exceptions
+     * de la tâche sont relancées telles quelles.
+     *
+     * @throws TooManyRequestsException si la file est pleine ou si le délai
+     *                                  d'attente est dépassé
+     */
+    public <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new TooManyRequestsException("Service d'authentification saturé, veuillez réessayer");
+        }
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            rejected.increment();
+            throw new TooManyRequestsException("Service d'authentification saturé, veuillez réessayer");
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Authentification interrompue", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bank.auth.hashing.queue", this, PasswordHashingExecutor::getQueueDepth)
+                .description("Demandes de hachage en attente")
+                .register(registry);
+        Gauge.builder("bank.auth.hashing.active", this, PasswordHashingExecutor::getActiveCount)
+                .description("Hachages en cours")
+                .register(registry);
+        FunctionCounter.builder("bank.auth.hashing.rejected", this, PasswordHashingExecutor::getRejectedCount)
+                .description("Demandes refusées (file pleine ou délai dépassé)")
+                .register(registry);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
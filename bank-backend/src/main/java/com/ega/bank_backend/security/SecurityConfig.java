@@ -1,5 +1,6 @@
 package com.ega.bank_backend.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -37,7 +38,14 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Fin d'une réponse en flux (StreamingResponseBody) : l'accès a été
+                        // vérifié lors de la requête initiale, le JWT n'est pas relu ici.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**", "/h2-console/**").permitAll()
+                        // Sonde de disponibilité ouverte ; les métriques exposent le trafic
+                        // par endpoint et restent réservées à l'administration.
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -55,7 +63,10 @@ public class SecurityConfig {
         // Autorise les méthodes HTTP standards
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         // Autorise les headers nécessaires pour JWT et le contenu JSON
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "X-Requested-With"));
+        configuration.setAllowedHeaders(
+                Arrays.asList("Authorization", "Content-Type", "Accept", "X-Requested-With", "Idempotency-Key"));
+        // Expose le curseur de pagination de l'historique au frontend
+        configuration.setExposedHeaders(Collections.singletonList("X-Next-Cursor"));
         // Autorise l'envoi de cookies ou d'authentification si nécessaire
         configuration.setAllowCredentials(true);
         // Durée de mise en cache de la réponse preflight
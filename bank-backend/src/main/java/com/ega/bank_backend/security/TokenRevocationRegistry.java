@@ -0,0 +1,60 @@
+package com.ega.bank_backend.security;
+
+import com.ega.bank_backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Registre mémoire des jetons encore acceptés, consulté à chaque requête à la
+ * place d'une lecture de l'utilisateur en base.
+ * <p>
+ * Pour chaque nom d'utilisateur, il retient la date d'émission (en secondes)
+ * à partir de laquelle un jeton est valide : {@link Long#MAX_VALUE} pour un
+ * utilisateur supprimé, l'instant de l'inscription pour un nom réattribué.
+ * Un nom absent est résolu une seule fois en base, ce qui reste correct après
+ * un redémarrage.
+ * <p>
+ * Une entrée expire après la durée de vie d'un jeton : les jetons émis avant
+ * elle ont alors tous expiré, et le nom est de nouveau résolu en base s'il
+ * réapparaît. Le registre est propre à chaque instance : une suppression n'est
+ * vue des autres instances qu'à l'expiration de leur entrée pour ce nom, soit
+ * au plus la durée de vie d'un jeton.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final long REVOKED = Long.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> notBefore;
+
+    public TokenRevocationRegistry(UserRepository userRepository, JwtUtils jwtUtils) {
+        this.userRepository = userRepository;
+        this.notBefore = Caffeine.newBuilder()
+                .expireAfterWrite(jwtUtils.getTokenLifetime())
+                .build();
+    }
+
+    public boolean isAccepted(String username, Date issuedAt) {
+        long since = notBefore.get(username, name -> userRepository.existsByUsername(name) ? 0L : REVOKED);
+        return since != REVOKED && issuedAt != null && issuedAt.getTime() / 1000 >= since;
+    }
+
+    /**
+     * Nouvel utilisateur : les jetons émis auparavant pour le même nom
+     * (utilisateur supprimé) restent refusés.
+     */
+    public void register(String username) {
+        notBefore.put(username, System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * Utilisateur supprimé : tous ses jetons sont refusés.
+     */
+    public void revoke(String username) {
+        notBefore.put(username, REVOKED);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.repository.AccountRepository;
+import jakarta.annotation.PreDestroy;
+import org.iban4j.CountryCode;
+import org.iban4j.Iban;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Réserve de numéros de compte (IBAN FR) générés à l'avance.
+ * <p>
+ * Les numéros existants sont chargés une fois en mémoire ; chaque numéro
+ * généré y est réservé atomiquement, de sorte qu'une collision est écartée
+ * sans requête SQL. Un thread de fond remplit la réserve dès qu'elle passe
+ * sous la moitié de sa capacité ; {@link #take()} ne génère lui-même un numéro
+ * que si la réserve est vide. Un numéro réservé pour une création annulée
+ * n'est pas réutilisé. La contrainte d'unicité de la colonne reste la garantie
+ * finale (instances multiples, insertions hors application).
+ */
+@Component
+public class AccountNumberPool {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountNumberPool.class);
+
+    private final AccountRepository accountRepository;
+    private final BlockingQueue<String> pool;
+    private final int lowWatermark;
+    private final Set<String> knownNumbers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "account-number-pool");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean loaded;
+
+    public AccountNumberPool(AccountRepository accountRepository,
+            @Value("${bank.account-numbers.pool-size:512}") int poolSize) {
+        this.accountRepository = accountRepository;
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.lowWatermark = Math.max(1, poolSize / 2);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefill() {
+        triggerRefill();
+    }
+
+    /**
+     * Prochain numéro libre, déjà réservé.
+     */
+    public String take() {
+        ensureLoaded();
+        String accountNumber = pool.poll();
+        if (pool.size() < lowWatermark) {
+            triggerRefill();
+        }
+        return accountNumber != null ? accountNumber : reserveNew();
+    }
+
+    private void triggerRefill() {
+        if (refilling.compareAndSet(false, true)) {
+            refiller.execute(() -> {
+                try {
+                    ensureLoaded();
+                    while (pool.remainingCapacity() > 0) {
+                        pool.offer(reserveNew());
+                    }
+                } catch (RuntimeException ex) {
+                    log.warn("Échec du remplissage de la réserve de numéros de compte", ex);
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        }
+    }
+
+    private String reserveNew() {
+        String accountNumber;
+        do {
+            accountNumber = Iban.random(CountryCode.FR).toString();
+        } while (!knownNumbers.add(accountNumber));
+        return accountNumber;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    knownNumbers.addAll(accountRepository.findAllAccountNumbers());
+                    loaded = true;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refiller.shutdownNow();
+    }
+}
@@ -7,9 +7,9 @@ import com.ega.bank_backend.entity.Client;
 import com.ega.bank_backend.exception.ResourceNotFoundException;
 import com.ega.bank_backend.repository.AccountRepository;
 import com.ega.bank_backend.repository.ClientRepository;
-import org.iban4j.CountryCode;
-import org.iban4j.Iban;
+import com.ega.bank_backend.security.AccountOwnershipIndex;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -21,10 +21,18 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final ClientRepository clientRepository;
+    private final PortfolioCache portfolioCache;
+    private final AccountOwnershipIndex ownershipIndex;
+    private final AccountNumberPool accountNumberPool;
 
-    public AccountService(AccountRepository accountRepository, ClientRepository clientRepository) {
+    public AccountService(AccountRepository accountRepository, ClientRepository clientRepository,
+            PortfolioCache portfolioCache, AccountOwnershipIndex ownershipIndex,
+            AccountNumberPool accountNumberPool) {
         this.accountRepository = accountRepository;
         this.clientRepository = clientRepository;
+        this.portfolioCache = portfolioCache;
+        this.ownershipIndex = ownershipIndex;
+        this.accountNumberPool = accountNumberPool;
     }
 
     public AccountResponseDTO createAccount(AccountRequestDTO dto) {
@@ -41,6 +49,9 @@ public class AccountService {
         account.setAccountNumber(generateUniqueAccountNumber());
 
         Account saved = accountRepository.save(account);
+        String username = owner.getUser() != null ? owner.getUser().getUsername() : null;
+        portfolioCache.invalidateAfterCommit(username);
+        ownershipIndex.invalidateAfterCommit(username);
         return mapToResponseDTO(saved);
     }
 
@@ -57,20 +68,21 @@ public class AccountService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Comptes de l'utilisateur connecté, servis par le {@link PortfolioCache}.
+     * Pas de transaction ouverte ici : un accès servi par le cache ne prend
+     * aucune connexion, la requête de chargement a sa propre transaction.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<AccountResponseDTO> getAccountsByUsername(String username) {
-        return accountRepository.findAll().stream()
-                .filter(acc -> acc.getOwner().getUser() != null
-                        && acc.getOwner().getUser().getUsername().equals(username))
+        return portfolioCache.get(username, "accounts", () -> accountRepository.findByOwnerUsername(username)
+                .stream()
                 .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     private String generateUniqueAccountNumber() {
-        String accountNumber;
-        do {
-            accountNumber = Iban.random(CountryCode.FR).toString();
-        } while (accountRepository.findByAccountNumber(accountNumber).isPresent());
-        return accountNumber;
+        return accountNumberPool.take();
     }
 
     private AccountResponseDTO mapToResponseDTO(Account account) {
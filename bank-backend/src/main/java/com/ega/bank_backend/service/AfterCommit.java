@@ -0,0 +1,29 @@
+package com.ega.bank_backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Exécute une action une fois la transaction courante validée (jamais si elle
+ * est annulée), ou immédiatement en l'absence de transaction. Sert à mettre à
+ * jour les structures mémoire (caches, index) sans qu'un lecteur puisse y voir
+ * une écriture non encore visible en base.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
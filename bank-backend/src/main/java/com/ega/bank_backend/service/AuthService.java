@@ -6,17 +6,33 @@ import com.ega.bank_backend.dto.RegisterRequest;
 import com.ega.bank_backend.entity.AppUser;
 import com.ega.bank_backend.entity.Client;
 import com.ega.bank_backend.entity.Role;
+import com.ega.bank_backend.exception.TooManyRequestsException;
 import com.ega.bank_backend.repository.ClientRepository;
 import com.ega.bank_backend.repository.UserRepository;
 import com.ega.bank_backend.security.JwtUtils;
+import com.ega.bank_backend.security.LoginRateLimiter;
+import com.ega.bank_backend.security.PasswordHashingExecutor;
+import com.ega.bank_backend.security.TokenRevocationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inscription et connexion. Le débit est limité par utilisateur et par IP
+ * avant tout calcul, puis le hachage BCrypt s'exécute sur un pool borné
+ * ({@link PasswordHashingExecutor}) ; l'inscription n'ouvre sa transaction
+ * qu'une fois le mot de passe haché. La durée des connexions est mesurée
+ * ({@code bank.auth.login}, par issue).
+ */
 @Service
 public class AuthService {
 
@@ -24,29 +40,58 @@ public class AuthService {
     private final ClientRepository clientRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtUtils jwtUtils;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final LoginRateLimiter rateLimiter;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ClientSearchIndex searchIndex;
+    private final Timer loginSucceeded;
+    private final Timer loginFailed;
+    private final Timer loginThrottled;
 
     public AuthService(UserRepository userRepository, ClientRepository clientRepository,
             PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager,
-            UserDetailsService userDetailsService, JwtUtils jwtUtils) {
+            JwtUtils jwtUtils, TokenRevocationRegistry revocationRegistry, LoginRateLimiter rateLimiter,
+            PasswordHashingExecutor hashingExecutor, PlatformTransactionManager transactionManager,
+            ClientSearchIndex searchIndex, MeterRegistry registry) {
         this.userRepository = userRepository;
         this.clientRepository = clientRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
         this.jwtUtils = jwtUtils;
+        this.revocationRegistry = revocationRegistry;
+        this.rateLimiter = rateLimiter;
+        this.hashingExecutor = hashingExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.searchIndex = searchIndex;
+        this.loginSucceeded = loginTimer(registry, "success");
+        this.loginFailed = loginTimer(registry, "failure");
+        this.loginThrottled = loginTimer(registry, "throttled");
+    }
+
+    private static Timer loginTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("bank.auth.login")
+                .description("Durée des connexions (limitation, hachage et émission du jeton)")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
     }
 
-    @Transactional
-    public String register(RegisterRequest request) {
-        if (userRepository.findByUsername(request.username()).isPresent()) {
+    public String register(RegisterRequest request, String clientIp) {
+        rateLimiter.acquire(null, clientIp);
+        if (userRepository.existsByUsername(request.username())) {
             throw new RuntimeException("Username déjà utilisé");
         }
+        String encodedPassword = hashingExecutor.call(() -> passwordEncoder.encode(request.password()));
+        transactionTemplate.executeWithoutResult(status -> persistNewClient(request, encodedPassword));
+        return "Inscription réussie";
+    }
 
+    private void persistNewClient(RegisterRequest request, String encodedPassword) {
         AppUser user = new AppUser();
         user.setUsername(request.username());
-        user.setPassword(passwordEncoder.encode(request.password()));
+        user.setPassword(encodedPassword);
         user.setRole(Role.CLIENT);
 
         Client client = new Client();
@@ -68,16 +113,28 @@ public class AuthService {
         // In my entity definition, Client has @JoinColumn(name = "user_id"). So Client
         // owns the relationship.
         clientRepository.save(client);
-
-        return "Inscription réussie";
+        searchIndex.indexAfterCommit(client);
+        AfterCommit.run(() -> revocationRegistry.register(request.username()));
     }
 
-    public LoginResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password()));
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.username());
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        long start = System.nanoTime();
+        Authentication authentication;
+        try {
+            rateLimiter.acquire(request.username(), clientIp);
+            authentication = hashingExecutor.call(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.username(), request.password())));
+        } catch (TooManyRequestsException ex) {
+            loginThrottled.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        } catch (RuntimeException ex) {
+            loginFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String token = jwtUtils.generateToken(userDetails);
         String role = userDetails.getAuthorities().iterator().next().getAuthority();
+        loginSucceeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         return new LoginResponse(token, userDetails.getUsername(), role);
     }
 }
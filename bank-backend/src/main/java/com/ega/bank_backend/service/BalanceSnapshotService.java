@@ -0,0 +1,127 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.dto.BalanceResponseDTO;
+import com.ega.bank_backend.entity.BalanceSnapshot;
+import com.ega.bank_backend.exception.ResourceNotFoundException;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.BalanceSnapshotRepository;
+import com.ega.bank_backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Relevés périodiques des soldes, pour connaître le solde d'un compte à
+ * n'importe quel instant sans rejouer tout son historique : on part du dernier
+ * relevé antérieur et on ajoute les opérations qui le suivent.
+ * <p>
+ * Chaque relevé est pris sous les verrous du {@link LedgerEngine} : aucune
+ * écriture sur le compte ne peut s'intercaler entre la lecture du solde et
+ * l'horodatage du relevé. Les relevés plus anciens que
+ * {@code bank.snapshots.retention} sont purgés, hormis le dernier de chaque
+ * compte.
+ */
+@Service
+public class BalanceSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotService.class);
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerEngine ledgerEngine;
+    private final int batchSize;
+    private final Duration retention;
+
+    public BalanceSnapshotService(BalanceSnapshotRepository snapshotRepository, AccountRepository accountRepository,
+            TransactionRepository transactionRepository, LedgerEngine ledgerEngine,
+            @Value("${bank.snapshots.batch-size:200}") int batchSize,
+            @Value("${bank.snapshots.retention:P90D}") Duration retention) {
+        this.snapshotRepository = snapshotRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerEngine = ledgerEngine;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    /**
+     * Relève le solde des comptes ayant bougé depuis leur dernier relevé, par
+     * paquets de {@code bank.snapshots.batch-size} comptes verrouillés ensemble.
+     */
+    @Scheduled(fixedDelayString = "${bank.snapshots.interval:PT1H}",
+            initialDelayString = "${bank.snapshots.interval:PT1H}")
+    public void takeSnapshots() {
+        List<BalanceSnapshotRepository.SnapshotCandidate> candidates =
+                snapshotRepository.findAccountsToSnapshot(ORIGIN);
+        for (int from = 0; from < candidates.size(); from += batchSize) {
+            List<BalanceSnapshotRepository.SnapshotCandidate> batch =
+                    candidates.subList(from, Math.min(from + batchSize, candidates.size()));
+            List<String> accountNumbers = new ArrayList<>(batch.size());
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (BalanceSnapshotRepository.SnapshotCandidate candidate : batch) {
+                accountNumbers.add(candidate.getAccountNumber());
+                ids.add(candidate.getId());
+            }
+            ledgerEngine.execute(accountNumbers, () -> snapshot(ids));
+        }
+        if (!candidates.isEmpty()) {
+            log.info("Relevé des soldes de {} compte(s)", candidates.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bank.snapshots.purge-interval:PT24H}",
+            initialDelayString = "${bank.snapshots.purge-interval:PT24H}")
+    @Transactional
+    public void purgeOldSnapshots() {
+        int deleted = snapshotRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("{} relevé(s) de solde purgé(s)", deleted);
+        }
+    }
+
+    private void snapshot(List<Long> ids) {
+        LocalDateTime takenAt = LocalDateTime.now();
+        List<BalanceSnapshot> snapshots = new ArrayList<>(ids.size());
+        for (AccountRepository.BalanceView account : accountRepository.findBalancesByIdIn(ids)) {
+            snapshots.add(new BalanceSnapshot(accountRepository.getReferenceById(account.getId()),
+                    account.getBalance(), takenAt));
+        }
+        snapshotRepository.saveAll(snapshots);
+    }
+
+    @Transactional(readOnly = true)
+    public BalanceResponseDTO getBalanceAt(String accountNumber, LocalDateTime at) {
+        Long accountId = accountRepository.findLedgerViewByAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Compte introuvable: " + accountNumber))
+                .getId();
+        return new BalanceResponseDTO(accountNumber, at, balanceAt(accountId, at));
+    }
+
+    /**
+     * Solde du compte à l'instant {@code at} : opérations horodatées
+     * strictement avant {@code at}. Un relevé pris à {@code at} même inclut
+     * les opérations de cet instant : seul un relevé antérieur sert de départ.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(Long accountId, LocalDateTime at) {
+        Optional<BalanceSnapshot> snapshot = snapshotRepository
+                .findFirstByAccountIdAndTakenAtLessThanOrderByTakenAtDesc(accountId, at);
+        if (snapshot.isEmpty()) {
+            return transactionRepository.sumSignedAmountsBefore(accountId, at);
+        }
+        return snapshot.get().getBalance().add(
+                transactionRepository.sumSignedAmountsBetween(accountId, snapshot.get().getTakenAt(), at));
+    }
+}
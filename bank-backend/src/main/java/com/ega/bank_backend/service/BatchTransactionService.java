@@ -0,0 +1,214 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.dto.BatchLegDTO;
+import com.ega.bank_backend.dto.BatchLegResultDTO;
+import com.ega.bank_backend.dto.BatchTransactionRequestDTO;
+import com.ega.bank_backend.dto.BatchTransactionResponseDTO;
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.ClientStatus;
+import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionDirection;
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Application d'un lot d'opérations (dépôts, retraits, virements).
+ * Chaque tranche est appliquée dans une seule transaction, sous les verrous du
+ * {@link LedgerEngine} : les comptes de la tranche sont chargés en une requête,
+ * les soldes sont calculés en mémoire, puis Hibernate regroupe les insertions
+ * de {@link Transaction} et les mises à jour d'{@link Account} en lots JDBC
+ * ({@code hibernate.jdbc.batch_size}). Une opération invalide annule toute sa
+ * tranche ; les tranches déjà validées restent acquises.
+ * <p>
+ * Chaque tranche a son propre contexte de persistance, fermé à son commit :
+ * le lot doit donc être appelé hors de toute transaction ou session JPA liée
+ * au thread, sans quoi les tranches partageraient entités et transaction.
+ */
+@Service
+public class BatchTransactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchTransactionService.class);
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerEngine ledgerEngine;
+    private final OptimisticRetryPolicy retryPolicy;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PortfolioCache portfolioCache;
+
+    public BatchTransactionService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+            LedgerEngine ledgerEngine, OptimisticRetryPolicy retryPolicy, EntityManagerFactory entityManagerFactory,
+            PortfolioCache portfolioCache) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerEngine = ledgerEngine;
+        this.retryPolicy = retryPolicy;
+        this.entityManagerFactory = entityManagerFactory;
+        this.portfolioCache = portfolioCache;
+    }
+
+    public BatchTransactionResponseDTO applyBatch(BatchTransactionRequestDTO dto) {
+        if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+            throw new IllegalStateException("Le lot doit être appliqué hors transaction et hors session JPA ouverte");
+        }
+        List<BatchLegDTO> legs = dto.legs();
+        int chunkSize = dto.effectiveChunkSize();
+        BatchLegResultDTO[] results = new BatchLegResultDTO[legs.size()];
+
+        for (int from = 0; from < legs.size(); from += chunkSize) {
+            applyChunk(legs, from, Math.min(from + chunkSize, legs.size()), results);
+        }
+
+        int applied = (int) Arrays.stream(results)
+                .filter(r -> r.status() == BatchLegResultDTO.Status.APPLIED)
+                .count();
+        return new BatchTransactionResponseDTO(applied, legs.size() - applied, Arrays.asList(results));
+    }
+
+    private void applyChunk(List<BatchLegDTO> legs, int from, int to, BatchLegResultDTO[] results) {
+        List<BatchLegDTO> chunk = legs.subList(from, to);
+        Set<String> accountNumbers = new HashSet<>();
+        for (BatchLegDTO leg : chunk) {
+            accountNumbers.add(leg.accountNumber());
+            if (leg.targetAccountNumber() != null) {
+                accountNumbers.add(leg.targetAccountNumber());
+            }
+        }
+
+        try {
+            retryPolicy.execute("lot d'opérations [" + from + ", " + to + ")",
+                    () -> ledgerEngine.execute(accountNumbers, () -> applyLocked(chunk, from, accountNumbers)));
+            for (int i = from; i < to; i++) {
+                results[i] = new BatchLegResultDTO(i, BatchLegResultDTO.Status.APPLIED, null);
+            }
+        } catch (LegRejectedException ex) {
+            for (int i = from; i < to; i++) {
+                results[i] = i == ex.index
+                        ? new BatchLegResultDTO(i, BatchLegResultDTO.Status.REJECTED, ex.getMessage())
+                        : new BatchLegResultDTO(i, BatchLegResultDTO.Status.ROLLED_BACK,
+                                "Tranche annulée à cause de l'opération " + ex.index);
+            }
+        } catch (OptimisticLockingFailureException ex) {
+            rollBack(results, from, to, "Tranche annulée : comptes modifiés simultanément, réessayer");
+        } catch (RuntimeException ex) {
+            // Le détail (SQL, contraintes) reste dans les logs, pas dans la réponse.
+            log.error("Tranche [{}, {}) du lot annulée", from, to, ex);
+            rollBack(results, from, to, "Tranche annulée : erreur interne");
+        }
+    }
+
+    private static void rollBack(BatchLegResultDTO[] results, int from, int to, String message) {
+        for (int i = from; i < to; i++) {
+            results[i] = new BatchLegResultDTO(i, BatchLegResultDTO.Status.ROLLED_BACK, message);
+        }
+    }
+
+    private void applyLocked(List<BatchLegDTO> chunk, int offset, Set<String> accountNumbers) {
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findWithOwnerByAccountNumberIn(accountNumbers)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(chunk.size() + chunk.size() / 2);
+        for (int i = 0; i < chunk.size(); i++) {
+            BatchLegDTO leg = chunk.get(i);
+            int index = offset + i;
+            Account account = require(accounts, leg.accountNumber(), index);
+            if (account.getOwner().getStatus() == ClientStatus.SUSPENDED) {
+                throw new LegRejectedException(index, "Opération impossible : Client suspendu");
+            }
+
+            switch (leg.type()) {
+                case DEPOT -> {
+                    account.setBalance(account.getBalance().add(leg.amount()));
+                    transactions.add(newTransaction(TransactionType.DEPOT, TransactionDirection.CREDIT,
+                            leg.amount(), leg.description() != null ? leg.description() : "Dépôt sur compte",
+                            account, null));
+                }
+                case RETRAIT -> {
+                    debit(account, leg.amount(), index);
+                    transactions.add(newTransaction(TransactionType.RETRAIT, TransactionDirection.DEBIT,
+                            leg.amount(), leg.description() != null ? leg.description() : "Retrait du compte",
+                            account, null));
+                }
+                case VIREMENT -> {
+                    if (leg.targetAccountNumber() == null || leg.targetAccountNumber().isBlank()) {
+                        throw new LegRejectedException(index,
+                                "Le numéro de compte de destination est obligatoire pour un virement");
+                    }
+                    Account target = require(accounts, leg.targetAccountNumber(), index);
+                    debit(account, leg.amount(), index);
+                    target.setBalance(target.getBalance().add(leg.amount()));
+                    transactions.add(newTransaction(TransactionType.VIREMENT, TransactionDirection.DEBIT,
+                            leg.amount(), "Virement vers " + leg.targetAccountNumber() + ": " + leg.description(),
+                            account, leg.targetAccountNumber()));
+                    transactions.add(newTransaction(TransactionType.VIREMENT, TransactionDirection.CREDIT,
+                            leg.amount(), "Reçu de " + leg.accountNumber() + ": " + leg.description(),
+                            target, leg.accountNumber()));
+                }
+            }
+        }
+
+        transactionRepository.saveAll(transactions);
+
+        List<String> owners = new ArrayList<>(accounts.size());
+        for (Account account : accounts.values()) {
+            if (account.getOwner().getUser() != null) {
+                owners.add(account.getOwner().getUser().getUsername());
+            }
+        }
+        portfolioCache.invalidateAfterCommit(owners);
+    }
+
+    private Account require(Map<String, Account> accounts, String accountNumber, int index) {
+        Account account = accounts.get(accountNumber);
+        if (account == null) {
+            throw new LegRejectedException(index, "Compte introuvable: " + accountNumber);
+        }
+        return account;
+    }
+
+    private void debit(Account account, BigDecimal amount, int index) {
+        if (account.getBalance().compareTo(amount) < 0) {
+            throw new LegRejectedException(index, "Solde insuffisant sur le compte " + account.getAccountNumber());
+        }
+        account.setBalance(account.getBalance().subtract(amount));
+    }
+
+    private Transaction newTransaction(TransactionType type, TransactionDirection direction, BigDecimal amount,
+            String description, Account account, String targetAccountNumber) {
+        Transaction transaction = new Transaction();
+        transaction.setType(type);
+        transaction.setDirection(direction);
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setAccount(account);
+        transaction.setTargetAccountNumber(targetAccountNumber);
+        return transaction;
+    }
+
+    private static class LegRejectedException extends RuntimeException {
+        private final int index;
+
+        LegRejectedException(int index, String message) {
+            super(message);
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.dto.AccountRequestDTO;
+import com.ega.bank_backend.dto.BulkImportResponseDTO;
+import com.ega.bank_backend.dto.BulkImportRowDTO;
+import com.ega.bank_backend.dto.ClientRequestDTO;
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.entity.ClientStatus;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.ClientRepository;
+import com.ega.bank_backend.security.AccountOwnershipIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de clients et de comptes, depuis un tableau JSON ou un
+ * fichier CSV (en-tête portant les noms des champs du DTO).
+ * <p>
+ * Le corps est lu au fil de l'eau : chaque ligne est convertie et validée
+ * individuellement, puis les lignes valides sont enregistrées par tranches de
+ * {@code bank.bulk.chunk-size}, une transaction par tranche (insertions
+ * regroupées en lots JDBC). Une ligne invalide est rejetée seule ; une erreur
+ * d'enregistrement rejette sa tranche, les tranches déjà validées restent
+ * acquises. Comme pour les lots d'opérations, chaque tranche a son propre
+ * contexte de persistance : l'import est appelé hors transaction.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ClientRepository clientRepository;
+    private final AccountRepository accountRepository;
+    private final AccountNumberPool accountNumberPool;
+    private final PortfolioCache portfolioCache;
+    private final AccountOwnershipIndex ownershipIndex;
+    private final ClientSearchIndex searchIndex;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkImportService(ObjectMapper objectMapper, Validator validator, ClientRepository clientRepository,
+            AccountRepository accountRepository, AccountNumberPool accountNumberPool,
+            PortfolioCache portfolioCache, AccountOwnershipIndex ownershipIndex, ClientSearchIndex searchIndex,
+            EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+            @Value("${bank.bulk.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.clientRepository = clientRepository;
+        this.accountRepository = accountRepository;
+        this.accountNumberPool = accountNumberPool;
+        this.portfolioCache = portfolioCache;
+        this.ownershipIndex = ownershipIndex;
+        this.searchIndex = searchIndex;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public BulkImportResponseDTO importClients(InputStream body, MediaType contentType) {
+        return importRows(body, contentType, ClientRequestDTO.class, this::persistClients);
+    }
+
+    public BulkImportResponseDTO importAccounts(InputStream body, MediaType contentType) {
+        return importRows(body, contentType, AccountRequestDTO.class, this::persistAccounts);
+    }
+
+    private <T> BulkImportResponseDTO importRows(InputStream body, MediaType contentType, Class<T> type,
+            ChunkWriter<T> writer) {
+        if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+            throw new IllegalStateException("L'import doit être appelé hors transaction et hors session JPA ouverte");
+        }
+        List<BulkImportRowDTO> results = new ArrayList<>();
+        List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        try (RowSource<T> source = TEXT_CSV.isCompatibleWith(contentType)
+                ? new CsvRows<>(body, charsetOf(contentType), type)
+                : new JsonRows<>(body, type)) {
+            Row<T> row;
+            while ((row = source.next()) != null) {
+                String error = row.error() != null ? row.error() : validate(row.value());
+                if (error != null) {
+                    results.add(rejected(row.index(), error));
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, writer, results);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Lecture du fichier d'import interrompue", ex);
+            results.add(rejected(-1, "Lecture du fichier interrompue"));
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, writer, results);
+        }
+
+        results.sort(Comparator.comparingInt(BulkImportRowDTO::index));
+        int imported = (int) results.stream()
+                .filter(r -> r.status() == BulkImportRowDTO.Status.IMPORTED)
+                .count();
+        return new BulkImportResponseDTO(imported, results.size() - imported, results);
+    }
+
+    private <T> void writeChunk(List<Row<T>> chunk, ChunkWriter<T> writer, List<BulkImportRowDTO> results) {
+        List<BulkImportRowDTO> chunkResults = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.write(chunk, chunkResults));
+            results.addAll(chunkResults);
+        } catch (RuntimeException ex) {
+            // Le détail (SQL, contraintes) reste dans les logs, pas dans la réponse.
+            log.error("Tranche d'import annulée ({} lignes à partir de la ligne {})", chunk.size(),
+                    chunk.get(0).index(), ex);
+            for (Row<T> row : chunk) {
+                results.add(rejected(row.index(), "Tranche annulée : erreur interne"));
+            }
+        }
+    }
+
+    private void persistClients(List<Row<ClientRequestDTO>> chunk, List<BulkImportRowDTO> results) {
+        Set<String> emails = chunk.stream().map(row -> row.value().email()).collect(Collectors.toSet());
+        Set<String> taken = new HashSet<>(clientRepository.findExistingEmails(emails));
+
+        List<Client> clients = new ArrayList<>(chunk.size());
+        List<Integer> indexes = new ArrayList<>(chunk.size());
+        for (Row<ClientRequestDTO> row : chunk) {
+            if (!taken.add(row.value().email())) {
+                results.add(rejected(row.index(), "Email déjà utilisé : " + row.value().email()));
+                continue;
+            }
+            Client client = new Client();
+            ClientService.mapToEntity(row.value(), client);
+            clients.add(client);
+            indexes.add(row.index());
+        }
+
+        clientRepository.saveAll(clients);
+        searchIndex.indexAfterCommit(clients);
+        for (int i = 0; i < clients.size(); i++) {
+            results.add(new BulkImportRowDTO(indexes.get(i), BulkImportRowDTO.Status.IMPORTED,
+                    clients.get(i).getId(), null, null));
+        }
+    }
+
+    private void persistAccounts(List<Row<AccountRequestDTO>> chunk, List<BulkImportRowDTO> results) {
+        Set<Long> clientIds = chunk.stream().map(row -> row.value().clientId()).collect(Collectors.toSet());
+        Map<Long, Client> owners = new HashMap<>();
+        for (Client client : clientRepository.findWithUserByIdIn(clientIds)) {
+            owners.put(client.getId(), client);
+        }
+
+        List<Account> accounts = new ArrayList<>(chunk.size());
+        List<Integer> indexes = new ArrayList<>(chunk.size());
+        Set<String> usernames = new HashSet<>();
+        for (Row<AccountRequestDTO> row : chunk) {
+            Client owner = owners.get(row.value().clientId());
+            if (owner == null) {
+                results.add(rejected(row.index(), "Client introuvable avec l'ID: " + row.value().clientId()));
+                continue;
+            }
+            if (owner.getStatus() == ClientStatus.SUSPENDED) {
+                results.add(rejected(row.index(), "Impossible de créer un compte pour un client suspendu"));
+                continue;
+            }
+            Account account = new Account();
+            account.setAccountType(row.value().accountType());
+            account.setOwner(owner);
+            account.setAccountNumber(accountNumberPool.take());
+            accounts.add(account);
+            indexes.add(row.index());
+            if (owner.getUser() != null) {
+                usernames.add(owner.getUser().getUsername());
+            }
+        }
+
+        accountRepository.saveAll(accounts);
+        portfolioCache.invalidateAfterCommit(usernames);
+        ownershipIndex.invalidateAfterCommit(usernames);
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            results.add(new BulkImportRowDTO(indexes.get(i), BulkImportRowDTO.Status.IMPORTED,
+                    account.getId(), account.getAccountNumber(), null));
+        }
+    }
+
+    private String validate(Object value) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(value);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " : " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String mappingError(JsonMappingException ex) {
+        String field = ex.getPath().stream()
+                .map(JsonMappingException.Reference::getFieldName)
+                .filter(name -> name != null)
+                .collect(Collectors.joining("."));
+        return field.isEmpty() ? "Ligne illisible" : "Valeur invalide pour le champ " + field;
+    }
+
+    private static BulkImportRowDTO rejected(int index, String message) {
+        return new BulkImportRowDTO(index, BulkImportRowDTO.Status.REJECTED, null, null, message);
+    }
+
+    private static Charset charsetOf(MediaType contentType) {
+        return contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<Row<T>> chunk, List<BulkImportRowDTO> results);
+    }
+
+    /** Ligne lue : valeur convertie, ou message d'erreur de conversion. */
+    private record Row<T>(int index, T value, String error) {
+    }
+
+    private interface RowSource<T> extends AutoCloseable {
+        /** Ligne suivante, {@code null} en fin de flux. */
+        Row<T> next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Éléments d'un tableau JSON. Après une erreur de conversion, l'itérateur
+     * se resynchronise sur l'élément suivant ; une erreur de syntaxe arrête la
+     * lecture.
+     */
+    private final class JsonRows<T> implements RowSource<T> {
+        private final MappingIterator<T> iterator;
+        private int index;
+        private boolean broken;
+
+        JsonRows(InputStream body, Class<T> type) throws IOException {
+            this.iterator = objectMapper.readerFor(type).readValues(body);
+        }
+
+        @Override
+        public Row<T> next() throws IOException {
+            if (broken) {
+                return null;
+            }
+            try {
+                if (!iterator.hasNextValue()) {
+                    return null;
+                }
+                return new Row<>(index, iterator.nextValue(), null);
+            } catch (JsonMappingException ex) {
+                return new Row<>(index, null, mappingError(ex));
+            } catch (JsonProcessingException ex) {
+                broken = true;
+                return new Row<>(index, null, "JSON invalide, lecture arrêtée : " + ex.getOriginalMessage());
+            } finally {
+                index++;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+
+    /** Lignes d'un fichier CSV, converties via l'en-tête en objets du DTO. */
+    private final class CsvRows<T> implements RowSource<T> {
+        private final BufferedReader reader;
+        private final CsvRecordReader records;
+        private final Class<T> type;
+        private List<String> header;
+        private int index;
+
+        CsvRows(InputStream body, Charset charset, Class<T> type) {
+            this.reader = new BufferedReader(new InputStreamReader(body, charset));
+            this.records = new CsvRecordReader(reader);
+            this.type = type;
+        }
+
+        @Override
+        public Row<T> next() throws IOException {
+            List<String> fields;
+            try {
+                if (header == null) {
+                    header = records.next();
+                    if (header == null) {
+                        return null;
+                    }
+                }
+                fields = records.next();
+            } catch (IllegalArgumentException ex) {
+                return new Row<>(index++, null, ex.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+            int rowIndex = index++;
+            if (fields.size() != header.size()) {
+                return new Row<>(rowIndex, null,
+                        "Nombre de colonnes incorrect : " + fields.size() + " au lieu de " + header.size());
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i).strip();
+                values.put(header.get(i).strip(), value.isEmpty() ? null : value);
+            }
+            try {
+                return new Row<>(rowIndex, objectMapper.convertValue(values, type), null);
+            } catch (IllegalArgumentException ex) {
+                return new Row<>(rowIndex, null, ex.getCause() instanceof JsonMappingException mapping
+                        ? mappingError(mapping)
+                        : "Ligne illisible");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.dto.ClientSearchResultDTO;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.repository.ClientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index mémoire de recherche par préfixe sur le prénom, le nom, l'email et le
+ * téléphone des clients (console d'administration).
+ * <p>
+ * Les termes sont normalisés (minuscules, sans accents ; chiffres seuls pour
+ * le téléphone) et rangés dans une {@link ConcurrentSkipListMap} : un préfixe
+ * correspond à une plage contiguë de clés. Les lectures ne prennent aucun
+ * verrou ; les écritures d'un même client sont sérialisées par
+ * {@link ConcurrentHashMap#compute}. L'index est reconstruit en parallèle au
+ * démarrage puis tenu à jour après le commit de chaque création, modification
+ * ou suppression. Le chargement initial n'écrase pas une entrée déjà mise à
+ * jour, et ne réinsère pas un client supprimé pendant la reconstruction : ses
+ * suppressions sont notées (pierres tombales) le temps du chargement.
+ */
+@Component
+public class ClientSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientSearchIndex.class);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("[+\\d][\\d\\s.\\-]*");
+
+    private final ClientRepository clientRepository;
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Document> documents = new ConcurrentHashMap<>();
+    // Clients supprimés depuis le début de la reconstruction en cours, null hors reconstruction.
+    private volatile Set<Long> tombstones;
+
+    public ClientSearchIndex(ClientRepository clientRepository) {
+        this.clientRepository = clientRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        Set<Long> deleted = ConcurrentHashMap.newKeySet();
+        tombstones = deleted;
+        List<ClientSearchResultDTO> clients;
+        try {
+            // La lecture peut précéder le commit d'une suppression : le client lu
+            // n'est indexé que s'il n'a pas été supprimé entre-temps.
+            clients = clientRepository.findAllForSearch();
+            clients.parallelStream().forEach(client -> indexIfAbsent(client, deleted));
+        } finally {
+            tombstones = null;
+        }
+        log.info("Index de recherche des clients construit : {} clients en {} ms",
+                clients.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Clients dont chaque mot de {@code query} est le début d'un de leurs
+     * termes, au plus {@code limit}, dans l'ordre alphabétique du premier mot.
+     */
+    public List<ClientSearchResultDTO> search(String query, int limit) {
+        List<String> tokens = queryTokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String first = tokens.get(0);
+        NavigableMap<String, Set<Long>> range = terms.subMap(first, true, first + Character.MAX_VALUE, false);
+        Set<Long> seen = new HashSet<>();
+        List<ClientSearchResultDTO> results = new ArrayList<>(Math.min(limit, 64));
+        for (Set<Long> ids : range.values()) {
+            for (Long id : ids) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                Document document = documents.get(id);
+                if (document != null && document.matchesAll(tokens)) {
+                    results.add(document.client());
+                    if (results.size() == limit) {
+                        return results;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    public void indexAfterCommit(Client client) {
+        ClientSearchResultDTO entry = toEntry(client);
+        AfterCommit.run(() -> index(entry));
+    }
+
+    public void indexAfterCommit(Collection<Client> clients) {
+        List<ClientSearchResultDTO> entries = clients.stream().map(ClientSearchIndex::toEntry).toList();
+        AfterCommit.run(() -> entries.forEach(this::index));
+    }
+
+    public void removeAfterCommit(Long clientId) {
+        AfterCommit.run(() -> remove(clientId));
+    }
+
+    private void remove(Long clientId) {
+        // Pierre tombale posée avant le retrait : le chargement initial, sérialisé
+        // sur la même entrée, la voit s'il passe après.
+        Set<Long> deleted = tombstones;
+        if (deleted != null) {
+            deleted.add(clientId);
+        }
+        documents.computeIfPresent(clientId, (id, previous) -> {
+            unlink(id, previous.terms());
+            return null;
+        });
+    }
+
+    private void indexIfAbsent(ClientSearchResultDTO client, Set<Long> deleted) {
+        documents.compute(client.id(), (id, previous) ->
+                previous != null || deleted.contains(id) ? previous : link(client, null));
+    }
+
+    private void index(ClientSearchResultDTO client) {
+        documents.compute(client.id(), (id, previous) -> link(client, previous));
+    }
+
+    /**
+     * Range les termes du client dans l'index, en retirant ceux de sa version
+     * précédente qui ne s'appliquent plus. Appelée sous le verrou de l'entrée.
+     */
+    private Document link(ClientSearchResultDTO client, Document previous) {
+        Long id = client.id();
+        Set<String> clientTerms = termsOf(client);
+        if (previous != null) {
+            Set<String> stale = new HashSet<>(previous.terms());
+            stale.removeAll(clientTerms);
+            unlink(id, stale);
+        }
+        for (String term : clientTerms) {
+            terms.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        return new Document(client, clientTerms);
+    }
+
+    /**
+     * Les ensembles vidés restent dans l'index : les retirer ferait courir le
+     * risque de perdre un ajout concurrent sur le même terme.
+     */
+    private void unlink(Long id, Set<String> clientTerms) {
+        for (String term : clientTerms) {
+            Set<Long> ids = terms.get(term);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    private static ClientSearchResultDTO toEntry(Client client) {
+        return new ClientSearchResultDTO(client.getId(), client.getFirstName(), client.getLastName(),
+                client.getEmail(), client.getPhoneNumber());
+    }
+
+    private static Set<String> termsOf(ClientSearchResultDTO client) {
+        Set<String> result = new HashSet<>();
+        addWords(result, client.firstName());
+        addWords(result, client.lastName());
+        if (client.email() != null && !client.email().isBlank()) {
+            String email = normalize(client.email());
+            result.add(email);
+            addWords(result, email);
+        }
+        if (client.phoneNumber() != null) {
+            String digits = client.phoneNumber().replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                result.add(digits);
+            }
+        }
+        return result;
+    }
+
+    private static void addWords(Set<String> target, String value) {
+        if (value == null) {
+            return;
+        }
+        for (String word : SEPARATORS.split(normalize(value))) {
+            if (!word.isEmpty()) {
+                target.add(word);
+            }
+        }
+    }
+
+    private static List<String> queryTokens(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        String trimmed = query.strip();
+        if (PHONE_QUERY.matcher(trimmed).matches()) {
+            String digits = trimmed.replaceAll("\\D", "");
+            return digits.isEmpty() ? List.of() : List.of(digits);
+        }
+        // Même découpage que les noms indexés : « jean-pierre » donne « jean » et « pierre ».
+        Set<String> tokens = new LinkedHashSet<>();
+        addWords(tokens, trimmed);
+        return List.copyOf(tokens);
+    }
+
+    private static String normalize(String value) {
+        return DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private record Document(ClientSearchResultDTO client, Set<String> terms) {
+        boolean matchesAll(List<String> tokens) {
+            for (int i = 1; i < tokens.size(); i++) {
+                if (!matches(tokens.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(String token) {
+            for (String term : terms) {
+                if (term.startsWith(token)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
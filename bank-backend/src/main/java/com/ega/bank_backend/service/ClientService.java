@@ -2,14 +2,23 @@ package com.ega.bank_backend.service;
 
 import com.ega.bank_backend.dto.ClientRequestDTO;
 import com.ega.bank_backend.dto.ClientResponseDTO;
+import com.ega.bank_backend.dto.ClientSearchResultDTO;
 import com.ega.bank_backend.dto.AccountResponseDTO;
+import com.ega.bank_backend.entity.Account;
 import com.ega.bank_backend.entity.Client;
 import com.ega.bank_backend.exception.ResourceNotFoundException;
+import com.ega.bank_backend.repository.AccountRepository;
 import com.ega.bank_backend.repository.ClientRepository;
+import com.ega.bank_backend.security.AccountOwnershipIndex;
+import com.ega.bank_backend.security.TokenRevocationRegistry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,15 +26,28 @@ import java.util.stream.Collectors;
 public class ClientService {
 
     private final ClientRepository clientRepository;
-
-    public ClientService(ClientRepository clientRepository) {
+    private final AccountRepository accountRepository;
+    private final PortfolioCache portfolioCache;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final AccountOwnershipIndex ownershipIndex;
+    private final ClientSearchIndex searchIndex;
+
+    public ClientService(ClientRepository clientRepository, AccountRepository accountRepository,
+            PortfolioCache portfolioCache, TokenRevocationRegistry revocationRegistry,
+            AccountOwnershipIndex ownershipIndex, ClientSearchIndex searchIndex) {
         this.clientRepository = clientRepository;
+        this.accountRepository = accountRepository;
+        this.portfolioCache = portfolioCache;
+        this.revocationRegistry = revocationRegistry;
+        this.ownershipIndex = ownershipIndex;
+        this.searchIndex = searchIndex;
     }
 
     public ClientResponseDTO createClient(ClientRequestDTO dto) {
         Client client = new Client();
         mapToEntity(dto, client);
         Client saved = clientRepository.save(client);
+        searchIndex.indexAfterCommit(saved);
         return mapToResponseDTO(saved);
     }
 
@@ -34,13 +56,33 @@ public class ClientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Client introuvable avec l'ID: " + id));
         mapToEntity(dto, client);
         Client saved = clientRepository.save(client);
+        portfolioCache.invalidateAfterCommit(usernameOf(saved));
+        searchIndex.indexAfterCommit(saved);
         return mapToResponseDTO(saved);
     }
 
-    public List<ClientResponseDTO> getAllClients() {
-        return clientRepository.findAll().stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+    /**
+     * Page de clients. Les comptes de la page sont chargés en une seule requête
+     * ({@code IN}), et pas du tout si {@code withAccounts} est faux ; aucun
+     * comptage total n'est effectué.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ClientResponseDTO> getClients(Pageable pageable, boolean withAccounts) {
+        Slice<Client> clients = clientRepository.findAllBy(pageable);
+        Map<Long, List<Account>> accounts = withAccounts && clients.hasContent()
+                ? accountRepository.findByOwnerIdIn(clients.map(Client::getId).getContent()).stream()
+                        .collect(Collectors.groupingBy(account -> account.getOwner().getId()))
+                : Map.of();
+        return clients.map(client -> mapToResponseDTO(client, accounts.getOrDefault(client.getId(), List.of())));
+    }
+
+    /**
+     * Recherche par préfixe servie par le {@link ClientSearchIndex}, sans
+     * requête SQL.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ClientSearchResultDTO> searchClients(String query, int limit) {
+        return searchIndex.search(query, limit);
     }
 
     public ClientResponseDTO getClientById(Long id) {
@@ -49,19 +91,30 @@ public class ClientService {
         return mapToResponseDTO(client);
     }
 
+    /**
+     * Fiche du client connecté, servie par le {@link PortfolioCache} (voir
+     * {@link AccountService#getAccountsByUsername}).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ClientResponseDTO getClientByUsername(String username) {
-        Client client = clientRepository.findAll().stream()
-                .filter(c -> c.getUser() != null && c.getUser().getUsername().equals(username))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Client introuvable pour l'utilisateur: " + username));
-        return mapToResponseDTO(client);
+        return portfolioCache.get(username, "client", () -> clientRepository.findByUsername(username)
+                .map(this::mapToResponseDTO)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Client introuvable pour l'utilisateur: " + username)));
     }
 
     public void deleteClient(Long id) {
-        if (!clientRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Client introuvable avec l'ID: " + id);
+        Client client = clientRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Client introuvable avec l'ID: " + id));
+        String username = usernameOf(client);
+        portfolioCache.invalidateAfterCommit(username);
+        ownershipIndex.invalidateAfterCommit(username);
+        searchIndex.removeAfterCommit(client.getId());
+        if (username != null) {
+            // L'utilisateur est supprimé avec le client : ses jetons ne doivent plus être acceptés.
+            AfterCommit.run(() -> revocationRegistry.revoke(username));
         }
-        clientRepository.deleteById(id);
+        clientRepository.delete(client);
     }
 
     public void suspendClient(Long id) {
@@ -69,6 +122,7 @@ public class ClientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Client introuvable avec l'ID: " + id));
         client.setStatus(com.ega.bank_backend.entity.ClientStatus.SUSPENDED);
         clientRepository.save(client);
+        portfolioCache.invalidateAfterCommit(usernameOf(client));
     }
 
     public void activateClient(Long id) {
@@ -76,9 +130,14 @@ public class ClientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Client introuvable avec l'ID: " + id));
         client.setStatus(com.ega.bank_backend.entity.ClientStatus.ACTIVE);
         clientRepository.save(client);
+        portfolioCache.invalidateAfterCommit(usernameOf(client));
+    }
+
+    private static String usernameOf(Client client) {
+        return client.getUser() != null ? client.getUser().getUsername() : null;
     }
 
-    private void mapToEntity(ClientRequestDTO dto, Client client) {
+    static void mapToEntity(ClientRequestDTO dto, Client client) {
         client.setFirstName(dto.firstName());
         client.setLastName(dto.lastName());
         client.setEmail(dto.email());
@@ -90,7 +149,11 @@ public class ClientService {
     }
 
     private ClientResponseDTO mapToResponseDTO(Client client) {
-        List<AccountResponseDTO> accounts = client.getAccounts().stream()
+        return mapToResponseDTO(client, client.getAccounts());
+    }
+
+    private ClientResponseDTO mapToResponseDTO(Client client, List<Account> clientAccounts) {
+        List<AccountResponseDTO> accounts = clientAccounts.stream()
                 .map(acc -> new AccountResponseDTO(
                         acc.getId(),
                         acc.getAccountNumber(),
@@ -0,0 +1,206 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.entity.IdempotencyRecord;
+import com.ega.bank_backend.entity.IdempotencyStatus;
+import com.ega.bank_backend.exception.IdempotencyConflictException;
+import com.ega.bank_backend.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Gestion de l'en-tête {@code Idempotency-Key} des opérations monétaires.
+ * La première requête portant une clé exécute l'opération ; les suivantes
+ * reçoivent la réponse enregistrée au lieu d'écrire une seconde fois.
+ * <ul>
+ * <li>un cache mémoire borné (Caffeine) sert les rejeux récents sans requête SQL ;</li>
+ * <li>la table {@code idempotency_keys} fait foi entre instances et après redémarrage ;</li>
+ * <li>les doublons simultanés sur une même instance attendent le résultat de la
+ * première exécution au lieu de s'exécuter en parallèle.</li>
+ * </ul>
+ * Seules les réponses réussies sont conservées : après une erreur, la clé est
+ * libérée et le client peut rejouer sa requête. La clé passe à
+ * {@code COMPLETED} dans la transaction même de l'écriture : un arrêt entre
+ * les deux ne peut pas laisser une opération validée sous une clé encore
+ * « en cours ». Une clé restée en cours au-delà de
+ * {@code bank.idempotency.stale-after} (instance arrêtée en pleine exécution)
+ * est reprise au lieu de bloquer le client jusqu'à son expiration.
+ */
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration staleAfter;
+
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository, PlatformTransactionManager transactionManager,
+            @Value("${bank.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${bank.idempotency.cache-size:10000}") long cacheSize,
+            @Value("${bank.idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+            @Value("${bank.idempotency.stale-after:PT2M}") Duration staleAfter) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.staleAfter = staleAfter;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Exécute {@code action} au plus une fois par clé. {@code action} reçoit le
+     * rappel qui complète la clé et doit l'exécuter dans la transaction de son
+     * écriture, avant le commit.
+     *
+     * @param scope    endpoint appelé (une même clé peut servir sur deux endpoints)
+     * @param username utilisateur authentifié
+     * @param key      valeur de l'en-tête, ou {@code null} si absent
+     * @param request  forme canonique du corps de la requête, dont l'empreinte
+     *                 est comparée à chaque rejeu
+     * @param response réponse en cas de succès, enregistrée pour les rejeux
+     */
+    public String execute(String scope, String username, String key, String request, String response,
+            Consumer<Runnable> action) {
+        if (key == null || key.isBlank()) {
+            action.accept(() -> {
+            });
+            return response;
+        }
+        String id = sha256(scope + '\n' + username + '\n' + key);
+        String requestHash = sha256(request);
+
+        StoredResponse cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return cached.responseFor(requestHash);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return await(running).responseFor(requestHash);
+        }
+        try {
+            StoredResponse result = executeOnce(id, requestHash, response, action);
+            completed.put(id, result);
+            mine.complete(result);
+            return result.responseFor(requestHash);
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private StoredResponse executeOnce(String id, String requestHash, String response,
+            Consumer<Runnable> action) {
+        Optional<IdempotencyRecord> existing = transactionTemplate.execute(status -> repository.findById(id));
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            LocalDateTime now = LocalDateTime.now();
+            if (record.getExpiresAt().isAfter(now)) {
+                if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                    return new StoredResponse(record.getRequestHash(), record.getResponse());
+                }
+                if (record.getCreatedAt().isAfter(now.minus(staleAfter))) {
+                    throw new IdempotencyConflictException(
+                            "Une requête avec cette clé d'idempotence est déjà en cours de traitement");
+                }
+            }
+            // Clé expirée, ou abandonnée en cours d'exécution : elle est reprise. Si
+            // l'exécution abandonnée se termine malgré tout, elle ne retrouve plus sa
+            // réservation et son écriture est annulée.
+            transactionTemplate.executeWithoutResult(
+                    status -> repository.deleteReservation(id, record.getCreatedAt()));
+        }
+
+        IdempotencyRecord reservation = new IdempotencyRecord(id, requestHash, LocalDateTime.now().plus(ttl));
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.save(reservation));
+        } catch (DataIntegrityViolationException ex) {
+            throw new IdempotencyConflictException(
+                    "Une requête avec cette clé d'idempotence est déjà en cours de traitement");
+        }
+
+        try {
+            action.accept(() -> {
+                if (repository.markCompleted(id, response, reservation.getCreatedAt()) == 0) {
+                    throw new IdempotencyConflictException(
+                            "Cette clé d'idempotence a été reprise par une autre requête");
+                }
+            });
+        } catch (RuntimeException ex) {
+            transactionTemplate.executeWithoutResult(
+                    status -> repository.deleteReservation(id, reservation.getCreatedAt()));
+            throw ex;
+        }
+        return new StoredResponse(requestHash, response);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IdempotencyConflictException(
+                    "Une requête avec cette clé d'idempotence est déjà en cours de traitement");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Attente de la requête d'origine interrompue");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bank.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteExpired(LocalDateTime.now()));
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String response) {
+        String responseFor(String requestHash) {
+            if (!this.requestHash.equals(requestHash)) {
+                throw new IdempotencyConflictException(
+                        "Cette clé d'idempotence a déjà été utilisée avec une requête différente");
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ega.bank_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Moteur d'exécution des écritures sur les comptes.
+ * Les opérations portant sur un même compte sont sérialisées grâce à un
+ * ensemble fixe de verrous répartis (lock striping) indexés par numéro de
+ * compte, tandis que des comptes sans rapport restent traités en parallèle.
+ * Le verrou est conservé jusqu'au commit de la transaction, de sorte qu'aucune
+ * autre opération ne puisse lire un solde non encore validé.
+ */
+@Component
+public class LedgerEngine {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final TransactionTemplate transactionTemplate;
+
+    public LedgerEngine(PlatformTransactionManager transactionManager,
+            @Value("${bank.ledger.lock-stripes:1024}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(2, stripeCount) - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void execute(String accountNumber, Runnable work) {
+        execute(List.of(accountNumber), work);
+    }
+
+    public void execute(Collection<String> accountNumbers, Runnable work) {
+        execute(accountNumbers, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Exécute {@code work} dans une transaction après avoir verrouillé tous les
+     * comptes concernés. Les verrous sont toujours pris dans l'ordre croissant
+     * de leur index : deux virements croisés (A vers B et B vers A) ne peuvent
+     * donc pas s'interbloquer.
+     */
+    public <T> T execute(Collection<String> accountNumbers, Supplier<T> work) {
+        int[] indexes = accountNumbers.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return transactionTemplate.execute(status -> work.get());
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int stripeIndex(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.exception.InsufficientBalanceException;
+import com.ega.bank_backend.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesures des opérations monétaires, par type d'opération :
+ * <ul>
+ * <li>{@code bank.ledger.operations} : durée (verrous et rejeux compris), par
+ * issue ({@code success}, {@code insufficient_balance}, {@code rejected},
+ * {@code error}) ; le nombre d'observations donne les débits et les taux
+ * d'échec ;</li>
+ * <li>{@code bank.ledger.amount} : montants des opérations réussies.</li>
+ * </ul>
+ * Tous les compteurs sont créés au démarrage : l'enregistrement ne fait ni
+ * recherche par tags ni allocation.
+ */
+@Component
+public class LedgerMetrics {
+
+    private final EnumMap<TransactionType, Timer[]> timers = new EnumMap<>(TransactionType.class);
+    private final EnumMap<TransactionType, DistributionSummary> amounts = new EnumMap<>(TransactionType.class);
+
+    public LedgerMetrics(MeterRegistry registry) {
+        for (TransactionType type : TransactionType.values()) {
+            Outcome[] outcomes = Outcome.values();
+            Timer[] byOutcome = new Timer[outcomes.length];
+            for (Outcome outcome : outcomes) {
+                byOutcome[outcome.ordinal()] = Timer.builder("bank.ledger.operations")
+                        .description("Durée des opérations monétaires")
+                        .tag("type", type.name())
+                        .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+            timers.put(type, byOutcome);
+            amounts.put(type, DistributionSummary.builder("bank.ledger.amount")
+                    .description("Montant des opérations monétaires réussies")
+                    .baseUnit("euros")
+                    .tag("type", type.name())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue(1_000_000.0)
+                    .register(registry));
+        }
+    }
+
+    /**
+     * @param startNanos valeur de {@link System#nanoTime()} au début de l'opération
+     */
+    public void succeeded(TransactionType type, BigDecimal amount, long startNanos) {
+        timers.get(type)[Outcome.SUCCESS.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (amount != null) {
+            amounts.get(type).record(amount.doubleValue());
+        }
+    }
+
+    public void failed(TransactionType type, RuntimeException cause, long startNanos) {
+        timers.get(type)[Outcome.of(cause).ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private enum Outcome {
+        SUCCESS, INSUFFICIENT_BALANCE, REJECTED, ERROR;
+
+        static Outcome of(RuntimeException cause) {
+            if (cause instanceof InsufficientBalanceException) {
+                return INSUFFICIENT_BALANCE;
+            }
+            if (cause instanceof IllegalArgumentException || cause instanceof ResourceNotFoundException) {
+                return REJECTED;
+            }
+            return ERROR;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ega.bank_backend.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Rejoue une opération lorsqu'elle échoue sur un conflit de version
+ * ({@code @Version}) : chaque tentative repart d'une transaction neuve, après
+ * une attente aléatoire (« full jitter ») qui croît exponentiellement.
+ * Les compteurs de rejeux et d'échecs définitifs permettent de repérer les
+ * comptes trop sollicités pour cette stratégie.
+ */
+@Component
+public class OptimisticRetryPolicy implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryPolicy.class);
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public OptimisticRetryPolicy(
+            @Value("${bank.ledger.retry.max-attempts:5}") int maxAttempts,
+            @Value("${bank.ledger.retry.backoff-ms:10}") long backoffMillis,
+            @Value("${bank.ledger.retry.max-backoff-ms:500}") long maxBackoffMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("bank.ledger.retries", this, OptimisticRetryPolicy::getRetryCount)
+                .description("Rejeux sur conflit de version")
+                .register(registry);
+        FunctionCounter.builder("bank.ledger.retry.failures", this, OptimisticRetryPolicy::getFailureCount)
+                .description("Échecs définitifs après rejeux")
+                .register(registry);
+    }
+
+    public void execute(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param operation libellé utilisé dans les logs (ex. « virement FR76... »)
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockException | OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    failures.increment();
+                    log.warn("Conflit de version persistant après {} tentatives : {}", attempt, operation);
+                    throw ex;
+                }
+                retries.increment();
+                log.debug("Conflit de version (tentative {}/{}) : {}", attempt, maxAttempts, operation);
+                pause(attempt, ex);
+            }
+        }
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    private void pause(int attempt, RuntimeException cause) {
+        long ceiling = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ega.bank_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Cache borné des vues « portefeuille » d'un utilisateur ({@code /me},
+ * {@code /my-accounts}), premières requêtes de chaque session client.
+ * <p>
+ * Invalidation par compteurs de version ({@link VersionStripes}) : une
+ * écriture validée rend périmées les vues en cache des utilisateurs concernés.
+ */
+@Component
+public class PortfolioCache implements MeterBinder {
+
+    private final Cache<Key, Versioned> cache;
+    private final VersionStripes versions = new VersionStripes();
+
+    /**
+     * @param size nombre maximal de vues gardées en cache ; 0 désactive le
+     *             cache
+     */
+    public PortfolioCache(@Value("${bank.portfolio-cache.size:10000}") long size,
+            @Value("${bank.portfolio-cache.ttl:PT10M}") Duration ttl) {
+        this.cache = size <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "portfolio");
+        }
+    }
+
+    /**
+     * Vue {@code view} de l'utilisateur, chargée par {@code loader} si absente
+     * ou invalidée depuis.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String username, String view, Supplier<T> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        long version = versions.current(username);
+        Key key = new Key(username, view);
+        Versioned cached = cache.getIfPresent(key);
+        if (cached != null && cached.version() == version) {
+            return (T) cached.value();
+        }
+        T value = loader.get();
+        cache.put(key, new Versioned(version, value));
+        return value;
+    }
+
+    /**
+     * Invalide les vues des utilisateurs donnés à la fin de la transaction
+     * courante si elle est validée, immédiatement en l'absence de transaction.
+     * Les noms {@code null} (client sans compte utilisateur) sont ignorés.
+     */
+    public void invalidateAfterCommit(Collection<String> usernames) {
+        versions.invalidateAfterCommit(usernames);
+    }
+
+    public void invalidateAfterCommit(String username) {
+        versions.invalidateAfterCommit(username);
+    }
+
+    private record Key(String username, String view) {
+    }
+
+    private record Versioned(long version, Object value) {
+    }
+}
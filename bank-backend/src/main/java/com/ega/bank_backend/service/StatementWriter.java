@@ -0,0 +1,109 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.TransactionType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Rendu texte à colonnes fixes d'un relevé bancaire, ligne par ligne.
+ * Chaque ligne est composée dans un tampon réutilisé puis écrite dans le
+ * {@link Writer} cible, sans passer par {@code String.format} : la mémoire
+ * utilisée ne dépend pas du nombre d'opérations du relevé.
+ */
+public final class StatementWriter {
+
+    private static final int DATE_WIDTH = 20;
+    private static final int TYPE_WIDTH = 10;
+    private static final int AMOUNT_WIDTH = 10;
+    private static final int DESCRIPTION_WIDTH = 30;
+    private static final String COLUMN_SEPARATOR = " | ";
+    private static final String RULE = "----------------------------\n";
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(128);
+    private char[] buffer = new char[128];
+
+    public StatementWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeHeader(String ownerName, String accountNumber, AccountType accountType,
+            LocalDateTime start, LocalDateTime end, BigDecimal openingBalance) throws IOException {
+        out.write("===== RELEVE BANCAIRE =====\n");
+        out.write("Titulaire: " + ownerName + "\n");
+        out.write("Compte: " + accountNumber + " (" + accountType + ")\n");
+        out.write("Période: " + start + " au " + end + "\n");
+        out.write("Solde d'ouverture: " + openingBalance + "\n");
+        out.write(RULE);
+
+        line.setLength(0);
+        column("Date", DATE_WIDTH).append(COLUMN_SEPARATOR);
+        column("Type", TYPE_WIDTH).append(COLUMN_SEPARATOR);
+        column("Montant", AMOUNT_WIDTH).append(COLUMN_SEPARATOR);
+        column("Description", DESCRIPTION_WIDTH).append('\n');
+        flushLine();
+    }
+
+    /**
+     * Écrit une opération ; la date est tronquée à la minute
+     * ({@code yyyy-MM-ddTHH:mm}).
+     */
+    public void writeRow(LocalDateTime timestamp, TransactionType type, BigDecimal amount, String description)
+            throws IOException {
+        line.setLength(0);
+        digits(timestamp.getYear(), 4).append('-');
+        digits(timestamp.getMonthValue(), 2).append('-');
+        digits(timestamp.getDayOfMonth(), 2).append('T');
+        digits(timestamp.getHour(), 2).append(':');
+        digits(timestamp.getMinute(), 2);
+        pad(0, DATE_WIDTH).append(COLUMN_SEPARATOR);
+        column(type.name(), TYPE_WIDTH).append(COLUMN_SEPARATOR);
+        column(amount.toString(), AMOUNT_WIDTH).append(COLUMN_SEPARATOR);
+        column(description, DESCRIPTION_WIDTH).append('\n');
+        flushLine();
+    }
+
+    public void writeFooter(BigDecimal closingBalance) throws IOException {
+        out.write(RULE);
+        out.write("Solde de clôture: " + closingBalance + "\n");
+    }
+
+    private StringBuilder column(String value, int width) {
+        int start = line.length();
+        line.append(value);
+        return pad(start, width);
+    }
+
+    // Complète à droite par des espaces ; une valeur plus longue n'est pas tronquée.
+    private StringBuilder pad(int start, int width) {
+        for (int i = line.length() - start; i < width; i++) {
+            line.append(' ');
+        }
+        return line;
+    }
+
+    private StringBuilder digits(int value, int width) {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            line.append((char) ('0' + value / divisor % 10));
+        }
+        return line;
+    }
+
+    // Writer.append(CharSequence) copierait la ligne dans une String : on passe par un char[] réutilisé.
+    private void flushLine() throws IOException {
+        int length = line.length();
+        if (length > buffer.length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        }
+        line.getChars(0, length, buffer, 0);
+        out.write(buffer, 0, length);
+    }
+}
@@ -1,160 +1,382 @@
 package com.ega.bank_backend.service;
 
+import com.ega.bank_backend.dto.TransactionCursor;
+import com.ega.bank_backend.dto.TransactionPageDTO;
 import com.ega.bank_backend.dto.TransactionRequestDTO;
 import com.ega.bank_backend.dto.TransactionResponseDTO;
 import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.ClientStatus;
 import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionDirection;
 import com.ega.bank_backend.entity.TransactionType;
 import com.ega.bank_backend.exception.InsufficientBalanceException;
 import com.ega.bank_backend.exception.ResourceNotFoundException;
 import com.ega.bank_backend.repository.AccountRepository;
 import com.ega.bank_backend.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Les opérations de dépôt, retrait et virement passent par le
+ * {@link LedgerEngine} qui verrouille les comptes concernés et ouvre lui-même
+ * la transaction : elles ne doivent donc pas être annotées
+ * {@code @Transactional}, sinon la transaction commencerait avant la prise du
+ * verrou. Les soldes sont modifiés par des mises à jour conditionnées à la
+ * version lue : une écriture concurrente que les verrous locaux ne voient pas
+ * (autre instance, lot) fait échouer la mise à jour, et l'ensemble est rejoué
+ * par {@link OptimisticRetryPolicy}, verrous relâchés pendant l'attente.
+ */
 @Service
-@Transactional
 public class TransactionService {
 
+    private static final int STREAM_FLUSH_ROWS = 200;
+    private static final Runnable NO_CALLBACK = () -> {
+    };
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final LedgerEngine ledgerEngine;
+    private final OptimisticRetryPolicy retryPolicy;
+    private final ObjectMapper objectMapper;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final PortfolioCache portfolioCache;
+    private final LedgerMetrics ledgerMetrics;
 
-    public TransactionService(TransactionRepository transactionRepository, AccountRepository accountRepository) {
+    public TransactionService(TransactionRepository transactionRepository, AccountRepository accountRepository,
+            LedgerEngine ledgerEngine, OptimisticRetryPolicy retryPolicy, ObjectMapper objectMapper,
+            BalanceSnapshotService balanceSnapshotService, PortfolioCache portfolioCache,
+            LedgerMetrics ledgerMetrics) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
+        this.ledgerEngine = ledgerEngine;
+        this.retryPolicy = retryPolicy;
+        this.objectMapper = objectMapper;
+        this.balanceSnapshotService = balanceSnapshotService;
+        this.portfolioCache = portfolioCache;
+        this.ledgerMetrics = ledgerMetrics;
     }
 
     public void deposit(TransactionRequestDTO dto) {
-        Account account = getAccount(dto.accountNumber());
-        if (account.getOwner().getStatus() == com.ega.bank_backend.entity.ClientStatus.SUSPENDED) {
+        deposit(dto, NO_CALLBACK);
+    }
+
+    /**
+     * @param inTransaction exécuté dans la transaction de l'écriture, avant le
+     *                      commit ; une exception annule l'opération
+     */
+    public void deposit(TransactionRequestDTO dto, Runnable inTransaction) {
+        long start = System.nanoTime();
+        try {
+            retryPolicy.execute("dépôt " + dto.accountNumber(),
+                    () -> ledgerEngine.execute(dto.accountNumber(), () -> {
+                        applyDeposit(dto);
+                        inTransaction.run();
+                    }));
+        } catch (RuntimeException ex) {
+            ledgerMetrics.failed(TransactionType.DEPOT, ex, start);
+            throw ex;
+        }
+        ledgerMetrics.succeeded(TransactionType.DEPOT, dto.amount(), start);
+    }
+
+    public void withdraw(TransactionRequestDTO dto) {
+        withdraw(dto, NO_CALLBACK);
+    }
+
+    /**
+     * @param inTransaction voir {@link #deposit(TransactionRequestDTO, Runnable)}
+     */
+    public void withdraw(TransactionRequestDTO dto, Runnable inTransaction) {
+        long start = System.nanoTime();
+        try {
+            retryPolicy.execute("retrait " + dto.accountNumber(),
+                    () -> ledgerEngine.execute(dto.accountNumber(), () -> {
+                        applyWithdraw(dto);
+                        inTransaction.run();
+                    }));
+        } catch (RuntimeException ex) {
+            ledgerMetrics.failed(TransactionType.RETRAIT, ex, start);
+            throw ex;
+        }
+        ledgerMetrics.succeeded(TransactionType.RETRAIT, dto.amount(), start);
+    }
+
+    public void transfer(TransactionRequestDTO dto) {
+        transfer(dto, NO_CALLBACK);
+    }
+
+    /**
+     * @param inTransaction voir {@link #deposit(TransactionRequestDTO, Runnable)}
+     */
+    public void transfer(TransactionRequestDTO dto, Runnable inTransaction) {
+        long start = System.nanoTime();
+        try {
+            if (dto.targetAccountNumber() == null || dto.targetAccountNumber().isBlank()) {
+                throw new IllegalArgumentException(
+                        "Le numéro de compte de destination est obligatoire pour un virement");
+            }
+            retryPolicy.execute("virement " + dto.accountNumber() + " -> " + dto.targetAccountNumber(),
+                    () -> ledgerEngine.execute(List.of(dto.accountNumber(), dto.targetAccountNumber()),
+                            () -> {
+                                applyTransfer(dto);
+                                inTransaction.run();
+                            }));
+        } catch (RuntimeException ex) {
+            ledgerMetrics.failed(TransactionType.VIREMENT, ex, start);
+            throw ex;
+        }
+        ledgerMetrics.succeeded(TransactionType.VIREMENT, dto.amount(), start);
+    }
+
+    private void applyDeposit(TransactionRequestDTO dto) {
+        AccountRepository.LedgerView account = getLedgerView(dto.accountNumber());
+        if (account.getOwnerStatus() == ClientStatus.SUSPENDED) {
             throw new IllegalArgumentException("Opération impossible : Client suspendu");
         }
-        account.setBalance(account.getBalance().add(dto.amount()));
+        credit(account.getId(), dto.amount(), account.getVersion());
+        portfolioCache.invalidateAfterCommit(account.getOwnerUsername());
 
         Transaction transaction = new Transaction();
         transaction.setType(TransactionType.DEPOT);
+        transaction.setDirection(TransactionDirection.CREDIT);
         transaction.setAmount(dto.amount());
         transaction.setDescription(dto.description() != null ? dto.description() : "Dépôt sur compte");
-        transaction.setAccount(account);
+        transaction.setAccount(accountRepository.getReferenceById(account.getId()));
 
         transactionRepository.save(transaction);
-        accountRepository.save(account);
     }
 
-    public void withdraw(TransactionRequestDTO dto) {
-        Account account = getAccount(dto.accountNumber());
-        if (account.getOwner().getStatus() == com.ega.bank_backend.entity.ClientStatus.SUSPENDED) {
+    private void applyWithdraw(TransactionRequestDTO dto) {
+        AccountRepository.LedgerView account = getLedgerView(dto.accountNumber());
+        if (account.getOwnerStatus() == ClientStatus.SUSPENDED) {
             throw new IllegalArgumentException("Opération impossible : Client suspendu");
         }
-        if (account.getBalance().compareTo(dto.amount()) < 0) {
-            throw new InsufficientBalanceException(
-                    "Solde insuffisant pour le retrait sur le compte " + dto.accountNumber());
-        }
-
-        account.setBalance(account.getBalance().subtract(dto.amount()));
+        debit(account, dto.amount(), "Solde insuffisant pour le retrait sur le compte " + dto.accountNumber());
+        portfolioCache.invalidateAfterCommit(account.getOwnerUsername());
 
         Transaction transaction = new Transaction();
         transaction.setType(TransactionType.RETRAIT);
+        transaction.setDirection(TransactionDirection.DEBIT);
         transaction.setAmount(dto.amount());
         transaction.setDescription(dto.description() != null ? dto.description() : "Retrait du compte");
-        transaction.setAccount(account);
+        transaction.setAccount(accountRepository.getReferenceById(account.getId()));
 
         transactionRepository.save(transaction);
-        accountRepository.save(account);
     }
 
-    public void transfer(TransactionRequestDTO dto) {
-        if (dto.targetAccountNumber() == null || dto.targetAccountNumber().isBlank()) {
-            throw new IllegalArgumentException("Le numéro de compte de destination est obligatoire pour un virement");
-        }
-
-        Account sourceAccount = getAccount(dto.accountNumber());
-        if (sourceAccount.getOwner().getStatus() == com.ega.bank_backend.entity.ClientStatus.SUSPENDED) {
+    private void applyTransfer(TransactionRequestDTO dto) {
+        AccountRepository.LedgerView sourceAccount = getLedgerView(dto.accountNumber());
+        if (sourceAccount.getOwnerStatus() == ClientStatus.SUSPENDED) {
             throw new IllegalArgumentException("Opération impossible : Client émetteur suspendu");
         }
 
-        Account targetAccount = getAccount(dto.targetAccountNumber());
-
-        if (sourceAccount.getBalance().compareTo(dto.amount()) < 0) {
-            throw new InsufficientBalanceException("Solde insuffisant pour le virement");
-        }
+        AccountRepository.LedgerView targetAccount = getLedgerView(dto.targetAccountNumber());
 
         // Debit source
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(dto.amount()));
+        debit(sourceAccount, dto.amount(), "Solde insuffisant pour le virement");
         Transaction sourceTx = new Transaction();
         sourceTx.setType(TransactionType.VIREMENT);
+        sourceTx.setDirection(TransactionDirection.DEBIT);
         sourceTx.setAmount(dto.amount());
         sourceTx.setDescription("Virement vers " + dto.targetAccountNumber() + ": " + dto.description());
-        sourceTx.setAccount(sourceAccount);
+        sourceTx.setAccount(accountRepository.getReferenceById(sourceAccount.getId()));
         sourceTx.setTargetAccountNumber(dto.targetAccountNumber());
 
         // Credit target
-        targetAccount.setBalance(targetAccount.getBalance().add(dto.amount()));
+        // Virement vers le même compte : le débit vient d'incrémenter sa version.
+        long targetVersion = targetAccount.getId().equals(sourceAccount.getId())
+                ? sourceAccount.getVersion() + 1
+                : targetAccount.getVersion();
+        credit(targetAccount.getId(), dto.amount(), targetVersion);
+        portfolioCache.invalidateAfterCommit(
+                Arrays.asList(sourceAccount.getOwnerUsername(), targetAccount.getOwnerUsername()));
         Transaction targetTx = new Transaction();
         targetTx.setType(TransactionType.VIREMENT);
+        targetTx.setDirection(TransactionDirection.CREDIT);
         targetTx.setAmount(dto.amount());
         targetTx.setDescription("Reçu de " + dto.accountNumber() + ": " + dto.description());
-        targetTx.setAccount(targetAccount);
+        targetTx.setAccount(accountRepository.getReferenceById(targetAccount.getId()));
         targetTx.setTargetAccountNumber(dto.accountNumber());
 
         transactionRepository.save(sourceTx);
         transactionRepository.save(targetTx);
-        accountRepository.save(sourceAccount);
-        accountRepository.save(targetAccount);
     }
 
     /**
-     * Récupère l'historique des transactions d'un compte sous forme de DTOs.
+     * Récupère une page de l'historique d'un compte sous forme de DTOs.
      * Évite la récursion infinie en mappant les entités vers des objets plats.
+     * La pagination se fait par clé (timestamp, id) : passer le
+     * {@code nextCursor} de la page précédente pour obtenir la suivante.
      */
-    public List<TransactionResponseDTO> getHistoryDTO(String accountNumber, LocalDateTime start, LocalDateTime end) {
+    @Transactional(readOnly = true)
+    public TransactionPageDTO getHistoryDTO(String accountNumber, LocalDateTime start, LocalDateTime end,
+            String cursor, int size) {
         Account account = getAccount(accountNumber);
-        List<Transaction> transactions = transactionRepository.findByAccountIdAndTimestampBetween(account.getId(),
-                start, end);
-
-        return transactions.stream()
-                .map(TransactionResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+        TransactionCursor after = cursor != null ? TransactionCursor.decode(cursor)
+                : new TransactionCursor(start, 0L);
+        if (after.timestamp().isBefore(start)) {
+            after = new TransactionCursor(start, 0L);
+        }
+        return toPage(transactionRepository.findAccountPageAfter(account.getId(), end, after.timestamp(),
+                after.id(), PageRequest.of(0, size + 1)), size);
     }
 
     /**
-     * Récupère toutes les transactions sous forme de DTOs.
+     * Récupère une page de toutes les transactions sous forme de DTOs.
      * Utilisé par l'admin pour voir l'historique global.
      */
-    public List<TransactionResponseDTO> getAllTransactionsDTO() {
-        return transactionRepository.findAll().stream()
-                .map(TransactionResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public TransactionPageDTO getAllTransactionsDTO(String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        if (cursor == null) {
+            return toPage(transactionRepository.findFirstPage(limit), size);
+        }
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        return toPage(transactionRepository.findPageAfter(after.timestamp(), after.id(), limit), size);
     }
 
-    public String generateBankStatement(String accountNumber, LocalDateTime start, LocalDateTime end) {
+    /**
+     * Vérifie l'existence du compte avant d'ouvrir un flux d'export, pour que
+     * l'erreur 404 soit renvoyée avant les premiers octets.
+     */
+    @Transactional(readOnly = true)
+    public Long getAccountId(String accountNumber) {
+        return getLedgerView(accountNumber).getId();
+    }
+
+    /**
+     * Écrit l'historique au format NDJSON (un objet JSON par ligne) au fur et à
+     * mesure de la lecture du curseur base : la mémoire utilisée ne dépend pas
+     * du nombre de lignes. {@code accountId} à {@code null} exporte tout
+     * l'historique.
+     */
+    @Transactional(readOnly = true)
+    public void writeHistoryNdjson(Long accountId, LocalDateTime start, LocalDateTime end, OutputStream out)
+            throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        try (Stream<TransactionResponseDTO> transactions = accountId == null ? transactionRepository.streamAll()
+                : transactionRepository.streamByAccount(accountId, start, end)) {
+            int rows = 0;
+            for (TransactionResponseDTO transaction : (Iterable<TransactionResponseDTO>) transactions::iterator) {
+                objectMapper.writeValue(generator, transaction);
+                generator.writeRaw('\n');
+                if (++rows % STREAM_FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        generator.flush();
+    }
+
+    private TransactionPageDTO toPage(List<TransactionResponseDTO> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<TransactionResponseDTO> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionResponseDTO last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.timestamp(), last.id()).encode();
+        }
+        return new TransactionPageDTO(page, nextCursor);
+    }
+
+    /**
+     * Écrit le relevé d'un compte au fil de la lecture du curseur base.
+     * L'en-tête est envoyé immédiatement ; les lignes suivent par paquets.
+     * Le solde d'ouverture vient des relevés de solde, celui de clôture est
+     * obtenu en cumulant les opérations listées.
+     */
+    @Transactional(readOnly = true)
+    public void writeBankStatement(String accountNumber, LocalDateTime start, LocalDateTime end, Writer out)
+            throws IOException {
         Account account = getAccount(accountNumber);
-        List<TransactionResponseDTO> transactions = getHistoryDTO(accountNumber, start, end);
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("===== RELEVE BANCAIRE =====\n");
-        sb.append("Titulaire: ").append(account.getOwner().getFirstName()).append(" ")
-                .append(account.getOwner().getLastName()).append("\n");
-        sb.append("Compte: ").append(account.getAccountNumber()).append(" (").append(account.getAccountType())
-                .append(")\n");
-        sb.append("Période: ").append(start).append(" au ").append(end).append("\n");
-        sb.append("Solde actuel: ").append(account.getBalance()).append("\n");
-        sb.append("----------------------------\n");
-        sb.append(String.format("%-20s | %-10s | %-10s | %-30s\n", "Date", "Type", "Montant", "Description"));
-
-        for (TransactionResponseDTO t : transactions) {
-            sb.append(String.format("%-20s | %-10s | %-10s | %-30s\n",
-                    t.timestamp().toString().substring(0, 16),
-                    t.type(),
-                    t.amount(),
-                    t.description()));
+        BigDecimal balance = balanceSnapshotService.balanceAt(account.getId(), start);
+        StatementWriter statement = new StatementWriter(out);
+        statement.writeHeader(account.getOwner().getFirstName() + " " + account.getOwner().getLastName(),
+                account.getAccountNumber(), account.getAccountType(), start, end, balance);
+        out.flush();
+
+        try (Stream<TransactionResponseDTO> transactions =
+                transactionRepository.streamByAccount(account.getId(), start, end)) {
+            int rows = 0;
+            for (TransactionResponseDTO t : (Iterable<TransactionResponseDTO>) transactions::iterator) {
+                statement.writeRow(t.timestamp(), t.type(), t.amount(), t.description());
+                balance = t.direction() == TransactionDirection.DEBIT
+                        ? balance.subtract(t.amount())
+                        : balance.add(t.amount());
+                if (++rows % STREAM_FLUSH_ROWS == 0) {
+                    out.flush();
+                }
+            }
+        }
+        statement.writeFooter(balance);
+        out.flush();
+    }
+
+    /**
+     * Relevé complet en mémoire, pour les appels internes.
+     */
+    @Transactional(readOnly = true)
+    public String generateBankStatement(String accountNumber, LocalDateTime start, LocalDateTime end) {
+        StringWriter out = new StringWriter();
+        try {
+            writeBankStatement(accountNumber, start, end, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Débite le compte lu. Le solde insuffisant est constaté sur la lecture ;
+     * une mise à jour qui ne touche aucune ligne signale qu'une autre écriture
+     * a modifié le compte depuis : l'opération est alors rejouée par
+     * {@link OptimisticRetryPolicy}.
+     */
+    private void debit(AccountRepository.LedgerView account, BigDecimal amount, String insufficientMessage) {
+        if (account.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientBalanceException(insufficientMessage);
+        }
+        if (accountRepository.debit(account.getId(), amount, account.getVersion()) == 0) {
+            throw concurrentUpdate(account.getId());
+        }
+    }
+
+    private void credit(Long accountId, BigDecimal amount, Long expectedVersion) {
+        if (accountRepository.credit(accountId, amount, expectedVersion) == 0) {
+            throw concurrentUpdate(accountId);
         }
-        sb.append("----------------------------\n");
-        return sb.toString();
+    }
+
+    private static OptimisticLockingFailureException concurrentUpdate(Long accountId) {
+        return new OptimisticLockingFailureException("Compte " + accountId + " modifié pendant l'opération");
+    }
+
+    /**
+     * Lecture légère (solde, version et statut du titulaire) utilisée par les
+     * écritures : l'entité n'est pas chargée, le solde est modifié directement
+     * en base par {@link AccountRepository#debit} et
+     * {@link AccountRepository#credit}.
+     */
+    private AccountRepository.LedgerView getLedgerView(String accountNumber) {
+        return accountRepository.findLedgerViewByAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Compte introuvable: " + accountNumber));
     }
 
     private Account getAccount(String accountNumber) {
@@ -0,0 +1,52 @@
+package com.ega.bank_backend.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteurs de version répartis par nom d'utilisateur, pour invalider un cache
+ * sans verrou. Une entrée retient la version lue avant son chargement et n'est
+ * servie que si cette version est toujours courante. Les écritures incrémentent
+ * la version après le commit : un chargement concurrent qui aurait lu les
+ * données d'avant le commit est donc ignoré au prochain accès. Deux
+ * utilisateurs d'un même groupe s'invalident l'un l'autre, ce qui ne coûte
+ * qu'un rechargement.
+ */
+public final class VersionStripes {
+
+    private static final int STRIPES = 4096;
+
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    /**
+     * Version courante, à lire avant de charger la valeur mise en cache.
+     */
+    public long current(String username) {
+        return versions.get(stripe(username));
+    }
+
+    /**
+     * Incrémente la version des utilisateurs donnés à la fin de la transaction
+     * courante si elle est validée, immédiatement en l'absence de transaction.
+     * Les noms {@code null} (client sans compte utilisateur) sont ignorés.
+     */
+    public void invalidateAfterCommit(Collection<String> usernames) {
+        AfterCommit.run(() -> usernames.forEach(this::invalidate));
+    }
+
+    public void invalidateAfterCommit(String username) {
+        invalidateAfterCommit(username == null ? List.of() : List.of(username));
+    }
+
+    private void invalidate(String username) {
+        if (username != null) {
+            versions.incrementAndGet(stripe(username));
+        }
+    }
+
+    private static int stripe(String username) {
+        int h = username.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,136 @@
+package com.ega.bank_backend.controller;
+
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.ClientRepository;
+import com.ega.bank_backend.repository.TransactionRepository;
+import com.ega.bank_backend.security.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * En-tête {@code Idempotency-Key} : une clé n'écrit qu'une fois, quel que soit
+ * le nombre de requêtes simultanées ou rejouées qui la portent.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyTests {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private String adminToken;
+
+    @BeforeEach
+    void token() {
+        adminToken = "Bearer " + jwtUtils.generateToken(
+                new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @Test
+    void concurrentRequestsWithSameKeyWriteOnce() throws Exception {
+        String accountNumber = newAccount("FR76IDEMPOTENT1");
+        long rows = transactionRepository.count();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        List<Future<MvcResult>> responses = new ArrayList<>(CONCURRENT_REQUESTS);
+        try {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                // Même montant écrit de deux façons : la même requête.
+                String amount = i % 2 == 0 ? "100" : "100.00";
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return deposit("cle-concurrente", accountNumber, amount).andReturn();
+                }));
+            }
+            start.countDown();
+            for (Future<MvcResult> response : responses) {
+                MvcResult result = response.get(60, TimeUnit.SECONDS);
+                assertThat(result.getResponse().getStatus()).isEqualTo(200);
+                assertThat(result.getResponse().getContentAsString()).isEqualTo("Dépôt effectué avec succès");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(balance(accountNumber)).isEqualByComparingTo("100.00");
+        assertThat(transactionRepository.count()).isEqualTo(rows + 1);
+    }
+
+    @Test
+    void replayReturnsStoredResponseAndDifferentBodyIsRejected() throws Exception {
+        String accountNumber = newAccount("FR76IDEMPOTENT2");
+
+        deposit("cle-rejouee", accountNumber, "50.0").andExpect(status().isOk());
+        deposit("cle-rejouee", accountNumber, "50").andExpect(status().isOk())
+                .andExpect(content().string("Dépôt effectué avec succès"));
+        deposit("cle-rejouee", accountNumber, "51").andExpect(status().isConflict());
+
+        assertThat(balance(accountNumber)).isEqualByComparingTo("50.00");
+    }
+
+    private ResultActions deposit(String key, String accountNumber, String amount) throws Exception {
+        return mockMvc.perform(post("/api/transactions/deposit")
+                .header(HttpHeaders.AUTHORIZATION, adminToken)
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"accountNumber\":\"" + accountNumber + "\",\"amount\":" + amount + "}"));
+    }
+
+    private String newAccount(String accountNumber) {
+        Client owner = new Client();
+        owner.setFirstName("Idempotence");
+        owner.setLastName(accountNumber);
+        owner.setEmail(accountNumber.toLowerCase() + "@example.com");
+        clientRepository.save(owner);
+
+        Account account = new Account();
+        account.setAccountType(AccountType.COURANT);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(BigDecimal.ZERO);
+        account.setOwner(owner);
+        accountRepository.save(account);
+        return accountNumber;
+    }
+
+    private BigDecimal balance(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+    }
+}
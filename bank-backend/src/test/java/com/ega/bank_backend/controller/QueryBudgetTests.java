@@ -0,0 +1,211 @@
+package com.ega.bank_backend.controller;
+
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.AppUser;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.entity.Role;
+import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionDirection;
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.monitoring.SqlDiagnosticsHeaderAdvice;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.ClientRepository;
+import com.ega.bank_backend.repository.TransactionRepository;
+import com.ega.bank_backend.repository.UserRepository;
+import com.ega.bank_backend.security.JwtUtils;
+import com.ega.bank_backend.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ega.bank_backend.support.QueryBudget.assertAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Budget de requêtes SQL des endpoints de lecture (et de la suppression d'un
+ * client, réponse sans corps), sur un jeu de données fixe
+ * (un client de test et de nombreux autres clients) : un parcours complet de
+ * table ou un N+1 réintroduit dépasse le budget et fait échouer le build.
+ * Les budgets couvrent le premier appel : les caches (portefeuille,
+ * propriété des comptes, jetons vérifiés) sont désactivés dans ce contexte.
+ */
+@SpringBootTest(properties = {
+        "bank.portfolio-cache.size=0",
+        "bank.ownership-index.size=0",
+        "bank.jwt.claims-cache-size=0"})
+@AutoConfigureMockMvc
+class QueryBudgetTests {
+
+    private static final String USERNAME = "budget";
+    private static final int OTHER_CLIENTS = 40;
+    private static final int ACCOUNTS = 3;
+    private static final int ROWS_PER_ACCOUNT = 60;
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final String START = "2024-01-01T00:00:00";
+    private static final String END = "2024-12-31T00:00:00";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionService transactionService;
+
+    private String clientToken;
+    private String adminToken;
+
+    @BeforeEach
+    void seed() {
+        clientToken = "Bearer " + jwtUtils.generateToken(
+                new User(USERNAME, "", List.of(new SimpleGrantedAuthority("ROLE_CLIENT"))));
+        adminToken = "Bearer " + jwtUtils.generateToken(
+                new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        if (userRepository.existsByUsername(USERNAME)) {
+            return;
+        }
+
+        AppUser user = new AppUser();
+        user.setUsername(USERNAME);
+        user.setPassword("{noop}budget");
+        user.setRole(Role.CLIENT);
+        Client client = newClient("Budget", "Test", "budget@example.com");
+        client.setUser(user);
+        user.setClient(client);
+        clientRepository.save(client);
+
+        List<Transaction> transactions = new ArrayList<>(ACCOUNTS * ROWS_PER_ACCOUNT);
+        for (int a = 0; a < ACCOUNTS; a++) {
+            Account account = newAccount(client, "FR76BUDGET" + a);
+            for (int i = 0; i < ROWS_PER_ACCOUNT; i++) {
+                Transaction transaction = new Transaction();
+                transaction.setType(TransactionType.DEPOT);
+                transaction.setDirection(TransactionDirection.CREDIT);
+                transaction.setAmount(BigDecimal.ONE);
+                transaction.setDescription("Dépôt " + i);
+                transaction.setTimestamp(ORIGIN.plusHours(i));
+                transaction.setAccount(account);
+                transactions.add(transaction);
+            }
+        }
+        transactionRepository.saveAll(transactions);
+
+        for (int c = 0; c < OTHER_CLIENTS; c++) {
+            Client other = clientRepository.save(newClient("Autre" + c, "Client", "autre" + c + "@example.com"));
+            newAccount(other, "FR76BUDGETO" + c + "A");
+            newAccount(other, "FR76BUDGETO" + c + "B");
+        }
+    }
+
+    @Test
+    void myAccounts() throws Exception {
+        assertAtMost(3, () -> mockMvc.perform(get("/api/accounts/my-accounts")
+                .header(HttpHeaders.AUTHORIZATION, clientToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ACCOUNTS)));
+    }
+
+    @Test
+    void myProfile() throws Exception {
+        assertAtMost(3, () -> mockMvc.perform(get("/api/clients/me")
+                .header(HttpHeaders.AUTHORIZATION, clientToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts.length()").value(ACCOUNTS)));
+    }
+
+    @Test
+    void accountHistory() throws Exception {
+        assertAtMost(4, () -> mockMvc.perform(get("/api/transactions/history/FR76BUDGET1")
+                .param("start", START)
+                .param("end", END)
+                .param("size", "50")
+                .header(HttpHeaders.AUTHORIZATION, clientToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlDiagnosticsHeaderAdvice.QUERY_COUNT_HEADER))
+                .andExpect(jsonPath("$.length()").value(50)));
+    }
+
+    @Test
+    void statement() throws Exception {
+        // Le corps du relevé est écrit sur un thread asynchrone : la requête HTTP
+        // couvre le contrôle d'accès, le rendu est mesuré au niveau du service.
+        assertAtMost(3, () -> mockMvc.perform(get("/api/transactions/statement/FR76BUDGET2")
+                .param("start", START)
+                .param("end", END)
+                .header(HttpHeaders.AUTHORIZATION, clientToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlDiagnosticsHeaderAdvice.QUERY_COUNT_HEADER)));
+        // Compte, relevé de solde, somme d'ouverture, titulaire, lignes.
+        String statement = assertAtMost(5, () -> transactionService.generateBankStatement("FR76BUDGET2",
+                LocalDateTime.parse(START), LocalDateTime.parse(END)));
+        assertThat(statement).contains("Solde de clôture");
+    }
+
+    @Test
+    void clientList() throws Exception {
+        assertAtMost(3, () -> mockMvc.perform(get("/api/clients")
+                .param("size", "100")
+                .header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(greaterThan(OTHER_CLIENTS))));
+    }
+
+    @Test
+    void accountList() throws Exception {
+        assertAtMost(2, () -> mockMvc.perform(get("/api/accounts")
+                .header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteClient() throws Exception {
+        Client client = clientRepository.save(newClient("Supprimé", "Client", "supprime@example.com"));
+        newAccount(client, "FR76BUDGETDEL");
+        // Réponse sans corps : les en-têtes de diagnostic sont posés par le filtre.
+        assertAtMost(7, () -> mockMvc.perform(delete("/api/clients/" + client.getId())
+                .header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isNoContent())
+                .andExpect(header().exists(SqlDiagnosticsHeaderAdvice.QUERY_COUNT_HEADER)));
+    }
+
+    private Client newClient(String firstName, String lastName, String email) {
+        Client client = new Client();
+        client.setFirstName(firstName);
+        client.setLastName(lastName);
+        client.setEmail(email);
+        return client;
+    }
+
+    private Account newAccount(Client owner, String accountNumber) {
+        Account account = new Account();
+        account.setAccountType(AccountType.COURANT);
+        account.setAccountNumber(accountNumber);
+        account.setOwner(owner);
+        return accountRepository.save(account);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ega.bank_backend.controller;
+
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.AppUser;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.entity.Role;
+import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionDirection;
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.ClientRepository;
+import com.ega.bank_backend.repository.TransactionRepository;
+import com.ega.bank_backend.security.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Relevés en cours en parallèle avec un pool de deux connexions. Une requête
+ * dont le corps est écrit en asynchrone reste ouverte jusqu'à la fin de
+ * l'envoi (client lent, gros relevé) : si elle gardait sa connexion jusque-là,
+ * la troisième attendrait une connexion que personne ne rend.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000"})
+@AutoConfigureMockMvc
+class StatementConcurrencyTests {
+
+    private static final String USERNAME = "statement";
+    private static final String ACCOUNT_NUMBER = "FR76STATEMENT0";
+    private static final int CONCURRENT_REQUESTS = 6;
+    private static final int ROWS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void openStatementsDoNotHoldConnections() throws Exception {
+        seed();
+        String token = "Bearer " + jwtUtils.generateToken(
+                new User(USERNAME, "", List.of(new SimpleGrantedAuthority("ROLE_CLIENT"))));
+
+        // Aucune requête n'est terminée (pas de redispatch) avant que toutes
+        // aient démarré : elles sont toutes en cours en même temps.
+        List<MvcResult> started = new ArrayList<>(CONCURRENT_REQUESTS);
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            started.add(mockMvc.perform(get("/api/transactions/statement/" + ACCOUNT_NUMBER)
+                    .param("start", "2024-01-01T00:00:00")
+                    .param("end", "2024-12-31T00:00:00")
+                    .header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(request().asyncStarted())
+                    .andReturn());
+        }
+        for (MvcResult result : started) {
+            result.getAsyncResult(TimeUnit.SECONDS.toMillis(30));
+            assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                    .contains("Solde de clôture");
+        }
+        for (MvcResult result : started) {
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        }
+    }
+
+    private void seed() {
+        AppUser user = new AppUser();
+        user.setUsername(USERNAME);
+        user.setPassword("{noop}statement");
+        user.setRole(Role.CLIENT);
+        Client client = new Client();
+        client.setFirstName("Relevé");
+        client.setLastName("Parallèle");
+        client.setEmail("statement@example.com");
+        client.setUser(user);
+        user.setClient(client);
+        clientRepository.save(client);
+
+        Account account = new Account();
+        account.setAccountType(AccountType.COURANT);
+        account.setAccountNumber(ACCOUNT_NUMBER);
+        account.setOwner(client);
+        accountRepository.save(account);
+
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setType(TransactionType.DEPOT);
+            transaction.setDirection(TransactionDirection.CREDIT);
+            transaction.setAmount(BigDecimal.ONE);
+            transaction.setDescription("Dépôt " + i);
+            transaction.setTimestamp(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i));
+            transaction.setAccount(account);
+            transactions.add(transaction);
+        }
+        transactionRepository.saveAll(transactions);
+    }
+}
@@ -0,0 +1,145 @@
+package com.ega.bank_backend.repository;
+
+import com.ega.bank_backend.dto.TransactionResponseDTO;
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.monitoring.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie sur le plan d'exécution H2 que les lectures d'historique parcourent
+ * les index composites de {@code transactions} : si un index disparaît ou si
+ * une requête cesse de le cibler, le build échoue. Le plan est celui du SQL
+ * réellement généré par {@link TransactionRepository}, capturé avec ses
+ * paramètres par {@link SqlStatementCounter}.
+ */
+@SpringBootTest
+class TransactionIndexPlanTests {
+
+    private static final int ACCOUNTS = 20;
+    private static final int ROWS_PER_ACCOUNT = 200;
+    private static final String FIRST_ACCOUNT = "FR76PLAN0";
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2024, 1, 1, 0, 0);
+    // Le compte fait partie de la condition d'index (et pas seulement du filtre qui suit).
+    private static final String ACCOUNT_INDEX_ON_ACCOUNT_ID = "IDX_TRANSACTIONS_ACCOUNT_TIMESTAMP:[^*]*ACCOUNT_ID = \\?1";
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (accountRepository.findByAccountNumber(FIRST_ACCOUNT).isPresent()) {
+            return;
+        }
+        Client client = new Client();
+        client.setFirstName("Index");
+        client.setLastName("Plan");
+        client.setEmail("index.plan@example.com");
+        clientRepository.save(client);
+
+        List<Transaction> transactions = new ArrayList<>(ACCOUNTS * ROWS_PER_ACCOUNT);
+        for (int a = 0; a < ACCOUNTS; a++) {
+            Account account = new Account();
+            account.setAccountType(AccountType.COURANT);
+            account.setAccountNumber("FR76PLAN" + a);
+            account.setOwner(client);
+            accountRepository.save(account);
+            for (int i = 0; i < ROWS_PER_ACCOUNT; i++) {
+                Transaction transaction = new Transaction();
+                transaction.setType(TransactionType.DEPOT);
+                transaction.setAmount(BigDecimal.ONE);
+                transaction.setDescription("Dépôt " + i);
+                transaction.setTimestamp(ORIGIN.plusHours(i));
+                transaction.setAccount(account);
+                transactions.add(transaction);
+            }
+        }
+        transactionRepository.saveAll(transactions);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void accountStreamScansAccountTimestampIndex() {
+        Long accountId = accountRepository.findByAccountNumber("FR76PLAN3").orElseThrow().getId();
+        // Relevés et exports NDJSON d'un compte.
+        String plan = explain(() -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TransactionResponseDTO> rows = transactionRepository.streamByAccount(accountId,
+                    ORIGIN.plusDays(1), ORIGIN.plusDays(2))) {
+                assertThat(rows.count()).isEqualTo(25);
+            }
+        }));
+
+        assertThat(plan).containsPattern(ACCOUNT_INDEX_ON_ACCOUNT_ID);
+    }
+
+    @Test
+    void balanceSumScansAccountTimestampIndex() {
+        Long accountId = accountRepository.findByAccountNumber("FR76PLAN3").orElseThrow().getId();
+        // Solde d'ouverture d'un relevé, depuis le dernier relevé de solde.
+        String plan = explain(() -> transactionRepository.sumSignedAmountsBetween(accountId,
+                ORIGIN.plusDays(1), ORIGIN.plusDays(2)));
+
+        assertThat(plan).containsPattern(ACCOUNT_INDEX_ON_ACCOUNT_ID);
+    }
+
+    @Test
+    void accountKeysetPageScansAccountTimestampIndex() {
+        Long accountId = accountRepository.findByAccountNumber("FR76PLAN3").orElseThrow().getId();
+        String plan = explain(() -> transactionRepository.findAccountPageAfter(accountId,
+                ORIGIN.plusDays(8), ORIGIN.plusDays(1), 0L, PageRequest.ofSize(101)));
+
+        assertThat(plan).containsPattern(ACCOUNT_INDEX_ON_ACCOUNT_ID);
+    }
+
+    @Test
+    void globalKeysetPageReadsTimestampIndexInOrder() {
+        String plan = explain(() -> transactionRepository.findPageAfter(ORIGIN.plusDays(1), 0L,
+                PageRequest.ofSize(101)));
+
+        assertThat(plan).contains("IDX_TRANSACTIONS_TIMESTAMP: TIMESTAMP >= ?1");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    /**
+     * Plan H2 de l'unique requête exécutée par {@code query}, avec les
+     * paramètres qu'elle a reçus.
+     */
+    private String explain(Runnable query) {
+        SqlStatementCounter.beginRecording();
+        List<SqlStatementCounter.Statement> statements;
+        try {
+            query.run();
+        } finally {
+            statements = SqlStatementCounter.end().getStatements();
+        }
+        assertThat(statements).hasSize(1);
+        SqlStatementCounter.Statement statement = statements.get(0);
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + statement.sql(), String.class,
+                statement.parameterArray()));
+    }
+}
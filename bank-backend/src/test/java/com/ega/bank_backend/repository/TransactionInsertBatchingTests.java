@@ -0,0 +1,78 @@
+package com.ega.bank_backend.repository;
+
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ega.bank_backend.support.QueryBudget.assertAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Les lignes {@code transactions} sont insérées par lots JDBC : la séquence
+ * pooled-lo fournit les identifiants sans aller-retour par ligne, et
+ * Hibernate regroupe les INSERT par {@code hibernate.jdbc.batch_size}. Une
+ * stratégie IDENTITY ou un lot désactivé ferait exécuter chaque INSERT seul.
+ */
+@SpringBootTest
+class TransactionInsertBatchingTests {
+
+    private static final int ROWS = 500;
+    /** {@code hibernate.jdbc.batch_size}, égal à l'{@code allocationSize} de la séquence. */
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void insertsAreBatched() throws Exception {
+        Account account = createAccount();
+        long before = transactionRepository.count();
+
+        // Un lot d'INSERT et un appel de séquence toutes les BATCH_SIZE lignes.
+        assertAtMost(2 * ROWS / BATCH_SIZE + 2, () -> transactionTemplate.execute(status -> {
+            Account reference = accountRepository.getReferenceById(account.getId());
+            List<Transaction> transactions = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                Transaction transaction = new Transaction();
+                transaction.setType(TransactionType.DEPOT);
+                transaction.setAmount(BigDecimal.TEN);
+                transaction.setDescription("Dépôt " + i);
+                transaction.setAccount(reference);
+                transactions.add(transaction);
+            }
+            return transactionRepository.saveAll(transactions);
+        }));
+
+        assertThat(transactionRepository.count()).isEqualTo(before + ROWS);
+    }
+
+    private Account createAccount() {
+        Client client = new Client();
+        client.setFirstName("Batch");
+        client.setLastName("Insert");
+        client.setEmail("batch.insert@example.com");
+        clientRepository.save(client);
+
+        Account account = new Account();
+        account.setAccountType(AccountType.COURANT);
+        account.setAccountNumber("FR7630006000011234567890189");
+        account.setOwner(client);
+        return accountRepository.save(account);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ega.bank_backend.security;
+
+import com.ega.bank_backend.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTests {
+
+    @Test
+    void emptyBucketRejectsUntilRefilled() throws InterruptedException {
+        // 2 jetons, un jeton toutes les 10 ms
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 6000, 100, 6000, 1000);
+
+        limiter.acquire("alice", "10.0.0.1");
+        limiter.acquire("alice", "10.0.0.1");
+        assertThatThrownBy(() -> limiter.acquire("alice", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+
+        Thread.sleep(50);
+        assertThatCode(() -> limiter.acquire("alice", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void refillNeverExceedsCapacity() throws InterruptedException {
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 6000, 100, 6000, 1000);
+
+        limiter.acquire("bob", null);
+        Thread.sleep(100);
+        limiter.acquire("bob", null);
+        limiter.acquire("bob", null);
+        assertThatThrownBy(() -> limiter.acquire("bob", null))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void usernameAndIpBucketsAreIndependent() {
+        // Recharge d'un jeton par minute : aucun jeton ne revient pendant le test
+        LoginRateLimiter limiter = new LoginRateLimiter(1, 1, 2, 1, 1000);
+
+        limiter.acquire("carol", "10.0.0.2");
+        assertThatThrownBy(() -> limiter.acquire("carol", "10.0.0.3"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> limiter.acquire("dave", "10.0.0.3")).doesNotThrowAnyException();
+
+        limiter.acquire("erin", "10.0.0.2");
+        assertThatThrownBy(() -> limiter.acquire("frank", "10.0.0.2"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(limiter.getRejectedCount()).isEqualTo(2);
+    }
+}
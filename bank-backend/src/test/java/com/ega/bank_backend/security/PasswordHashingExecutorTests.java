@@ -0,0 +1,87 @@
+package com.ega.bank_backend.security;
+
+import com.ega.bank_backend.exception.GlobalExceptionHandler;
+import com.ega.bank_backend.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class PasswordHashingExecutorTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void fullQueueIsRejectedWith429() throws Exception {
+        executor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(30));
+        CountDownLatch started = new CountDownLatch(1);
+
+        // Un hachage en cours, un autre en attente : le pool est saturé
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.call(() -> {
+            started.countDown();
+            release.await();
+            return "running";
+        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.call(() -> "queued"));
+        waitForQueueDepth(1);
+
+        TooManyRequestsException rejected = catchThrowableOfType(
+                () -> executor.call(() -> "rejected"), TooManyRequestsException.class);
+        assertThat(rejected).isNotNull();
+        assertThat(executor.getRejectedCount()).isEqualTo(1);
+        assertThat(new GlobalExceptionHandler().handleTooManyRequests(rejected).getStatusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        release.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThat(executor.call(() -> "after")).isEqualTo("after");
+    }
+
+    @Test
+    void waitBeyondTimeoutIsRejected() {
+        executor = new PasswordHashingExecutor(1, 1, Duration.ofMillis(50));
+
+        assertThatThrownBy(() -> executor.call(() -> {
+            release.await();
+            return "slow";
+        })).isInstanceOf(TooManyRequestsException.class);
+        assertThat(executor.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void taskExceptionIsRethrownAsIs() {
+        executor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(10));
+
+        assertThatThrownBy(() -> executor.call(() -> {
+            throw new IllegalArgumentException("mot de passe invalide");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("mot de passe invalide");
+        assertThat(executor.getRejectedCount()).isZero();
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (executor.getQueueDepth() < depth) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
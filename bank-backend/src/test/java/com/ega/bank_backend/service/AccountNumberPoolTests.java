@@ -0,0 +1,80 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.repository.AccountRepository;
+import org.iban4j.CountryCode;
+import org.iban4j.Iban;
+import org.iban4j.IbanUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountNumberPoolTests {
+
+    @Test
+    void numbersAreValidAndNeverHandedOutTwice() throws Exception {
+        AccountRepository accountRepository = mock(AccountRepository.class);
+        when(accountRepository.findAllAccountNumbers()).thenReturn(List.of());
+        AccountNumberPool pool = new AccountNumberPool(accountRepository, 16);
+        pool.prefill();
+
+        // Plus de numéros que la réserve n'en contient, pris par plusieurs threads
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> batches = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                batches.add(threads.submit(() -> {
+                    List<String> taken = new ArrayList<>();
+                    for (int j = 0; j < 250; j++) {
+                        taken.add(pool.take());
+                    }
+                    return taken;
+                }));
+            }
+            Set<String> distinct = new HashSet<>();
+            for (Future<List<String>> batch : batches) {
+                for (String accountNumber : batch.get()) {
+                    IbanUtil.validate(accountNumber);
+                    assertThat(accountNumber).startsWith("FR");
+                    assertThat(distinct.add(accountNumber)).as(accountNumber).isTrue();
+                }
+            }
+            assertThat(distinct).hasSize(1000);
+        } finally {
+            threads.shutdownNow();
+            pool.shutdown();
+        }
+        verify(accountRepository, times(1)).findAllAccountNumbers();
+    }
+
+    @Test
+    void existingAccountNumbersAreNeverHandedOut() {
+        Set<String> existing = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            existing.add(Iban.random(CountryCode.FR).toString());
+        }
+
+        AccountRepository seeded = mock(AccountRepository.class);
+        when(seeded.findAllAccountNumbers()).thenReturn(List.copyOf(existing));
+        AccountNumberPool pool = new AccountNumberPool(seeded, 8);
+        try {
+            for (int i = 0; i < 2000; i++) {
+                assertThat(existing).doesNotContain(pool.take());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        verify(seeded, times(1)).findAllAccountNumbers();
+    }
+}
@@ -0,0 +1,144 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.dto.TransactionRequestDTO;
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.BalanceSnapshot;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.entity.Transaction;
+import com.ega.bank_backend.entity.TransactionDirection;
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.BalanceSnapshotRepository;
+import com.ega.bank_backend.repository.ClientRepository;
+import com.ega.bank_backend.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Le solde à un instant, calculé depuis un relevé de solde, doit valoir le
+ * rejeu complet des opérations strictement antérieures.
+ */
+@SpringBootTest
+class BalanceSnapshotServiceTests {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void balanceAtMatchesReplayWithAndWithoutSnapshot() {
+        Account account = newAccount("FR76SNAPSHOT1");
+        List<Transaction> history = new ArrayList<>();
+        for (int hour = 0; hour < 10; hour++) {
+            history.add(transaction(account, hour % 3 == 2 ? TransactionDirection.DEBIT : TransactionDirection.CREDIT,
+                    BigDecimal.valueOf(10 + hour), ORIGIN.plusHours(hour)));
+        }
+        transactionRepository.saveAll(history);
+
+        List<LocalDateTime> instants = List.of(ORIGIN, ORIGIN.plusHours(4), ORIGIN.plusHours(4).plusMinutes(30),
+                ORIGIN.plusHours(5), ORIGIN.plusHours(5).plusSeconds(1), ORIGIN.plusHours(12));
+        for (LocalDateTime at : instants) {
+            assertThat(balanceSnapshotService.balanceAt(account.getId(), at)).as("sans relevé, %s", at)
+                    .isEqualByComparingTo(replay(history, at));
+        }
+
+        // Relevé pris à l'instant d'une opération : il l'inclut.
+        LocalDateTime takenAt = ORIGIN.plusHours(5);
+        snapshotRepository.save(new BalanceSnapshot(account, replay(history, takenAt.plusNanos(1)), takenAt));
+        for (LocalDateTime at : instants) {
+            assertThat(balanceSnapshotService.balanceAt(account.getId(), at)).as("avec relevé, %s", at)
+                    .isEqualByComparingTo(replay(history, at));
+        }
+    }
+
+    @Test
+    void scheduledSnapshotAgreesWithAccountBalance() {
+        String accountNumber = newAccount("FR76SNAPSHOT2").getAccountNumber();
+        Long accountId = accountRepository.findByAccountNumber(accountNumber).orElseThrow().getId();
+        transactionService.deposit(new TransactionRequestDTO(accountNumber, new BigDecimal("100.00"), null, null));
+        transactionService.withdraw(new TransactionRequestDTO(accountNumber, new BigDecimal("30.00"), null, null));
+
+        balanceSnapshotService.takeSnapshots();
+        LocalDateTime afterSnapshot = LocalDateTime.now();
+        transactionService.deposit(new TransactionRequestDTO(accountNumber, new BigDecimal("5.50"), null, null));
+
+        assertThat(balanceSnapshotService.balanceAt(accountId, afterSnapshot)).isEqualByComparingTo("70.00");
+        assertThat(balanceSnapshotService.balanceAt(accountId, LocalDateTime.now().plusSeconds(1)))
+                .isEqualByComparingTo(accountRepository.findByAccountNumber(accountNumber).orElseThrow()
+                        .getBalance())
+                .isEqualByComparingTo("75.50");
+    }
+
+    @Test
+    void purgeKeepsLatestSnapshotOfEachAccount() {
+        Account account = newAccount("FR76SNAPSHOT3");
+        LocalDateTime old = ORIGIN.minusYears(1);
+        snapshotRepository.save(new BalanceSnapshot(account, BigDecimal.ONE, old));
+        snapshotRepository.save(new BalanceSnapshot(account, BigDecimal.valueOf(2), old.plusDays(1)));
+        snapshotRepository.save(new BalanceSnapshot(account, BigDecimal.TEN, old.plusDays(2)));
+
+        balanceSnapshotService.purgeOldSnapshots();
+
+        assertThat(snapshotRepository.findAll()).filteredOn(s -> s.getAccount().getId().equals(account.getId()))
+                .extracting(BalanceSnapshot::getTakenAt)
+                .containsExactly(old.plusDays(2));
+    }
+
+    private static BigDecimal replay(List<Transaction> history, LocalDateTime at) {
+        BigDecimal balance = BigDecimal.ZERO;
+        for (Transaction transaction : history) {
+            if (transaction.getTimestamp().isBefore(at)) {
+                balance = transaction.getDirection() == TransactionDirection.DEBIT
+                        ? balance.subtract(transaction.getAmount())
+                        : balance.add(transaction.getAmount());
+            }
+        }
+        return balance;
+    }
+
+    private static Transaction transaction(Account account, TransactionDirection direction, BigDecimal amount,
+            LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setType(direction == TransactionDirection.DEBIT ? TransactionType.RETRAIT : TransactionType.DEPOT);
+        transaction.setDirection(direction);
+        transaction.setAmount(amount);
+        transaction.setTimestamp(timestamp);
+        transaction.setAccount(account);
+        return transaction;
+    }
+
+    private Account newAccount(String accountNumber) {
+        Client owner = new Client();
+        owner.setFirstName("Snapshot");
+        owner.setLastName(accountNumber);
+        owner.setEmail(accountNumber.toLowerCase() + "@example.com");
+        clientRepository.save(owner);
+
+        Account account = new Account();
+        account.setAccountType(AccountType.COURANT);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(BigDecimal.ZERO);
+        account.setOwner(owner);
+        return accountRepository.save(account);
+    }
+}
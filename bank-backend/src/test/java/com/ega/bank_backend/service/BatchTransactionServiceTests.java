@@ -0,0 +1,126 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.dto.BatchLegDTO;
+import com.ega.bank_backend.dto.BatchLegResultDTO;
+import com.ega.bank_backend.dto.BatchTransactionRequestDTO;
+import com.ega.bank_backend.dto.BatchTransactionResponseDTO;
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.entity.TransactionType;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.ClientRepository;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lots par tranches : une tranche est validée ou annulée en entier, sans effet
+ * sur les autres.
+ */
+@SpringBootTest
+class BatchTransactionServiceTests {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+
+    @Autowired
+    private BatchTransactionService batchTransactionService;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private Validator validator;
+
+    @Test
+    void eachChunkIsAppliedOrRolledBackAsAWhole() {
+        String a = newAccount("FR76BATCHA");
+        String b = newAccount("FR76BATCHB");
+
+        BatchTransactionResponseDTO response = batchTransactionService.applyBatch(new BatchTransactionRequestDTO(
+                List.of(
+                        // Tranche 1 : validée.
+                        leg(TransactionType.DEPOT, a, "10.00", null),
+                        leg(TransactionType.VIREMENT, a, "30.00", b),
+                        // Tranche 2 : le retrait échoue, le dépôt valide est annulé avec lui.
+                        leg(TransactionType.DEPOT, b, "5.00", null),
+                        leg(TransactionType.RETRAIT, a, "1000.00", null),
+                        // Tranche 3 : validée malgré l'échec précédent.
+                        leg(TransactionType.RETRAIT, b, "20.00", null)),
+                2));
+
+        assertThat(response.applied()).isEqualTo(3);
+        assertThat(response.notApplied()).isEqualTo(2);
+        assertThat(response.results()).extracting(BatchLegResultDTO::status).containsExactly(
+                BatchLegResultDTO.Status.APPLIED,
+                BatchLegResultDTO.Status.APPLIED,
+                BatchLegResultDTO.Status.ROLLED_BACK,
+                BatchLegResultDTO.Status.REJECTED,
+                BatchLegResultDTO.Status.APPLIED);
+        assertThat(response.results().get(3).message()).contains("Solde insuffisant");
+        assertThat(response.results().get(2).message()).contains("opération 3");
+
+        assertThat(balance(a)).isEqualByComparingTo("80.00");
+        assertThat(balance(b)).isEqualByComparingTo("110.00");
+    }
+
+    @Test
+    void unknownAccountRejectsItsLeg() {
+        String a = newAccount("FR76BATCHC");
+
+        BatchTransactionResponseDTO response = batchTransactionService.applyBatch(new BatchTransactionRequestDTO(
+                List.of(leg(TransactionType.VIREMENT, a, "1.00", "FR76BATCHINCONNU"),
+                        leg(TransactionType.DEPOT, a, "1.00", null)),
+                null));
+
+        assertThat(response.results()).extracting(BatchLegResultDTO::status).containsExactly(
+                BatchLegResultDTO.Status.REJECTED,
+                BatchLegResultDTO.Status.ROLLED_BACK);
+        assertThat(balance(a)).isEqualByComparingTo(INITIAL_BALANCE);
+    }
+
+    @Test
+    void chunkSizeIsBounded() {
+        List<BatchLegDTO> legs = List.of(leg(TransactionType.DEPOT, "FR76BATCHA", "1.00", null));
+
+        assertThat(validator.validate(new BatchTransactionRequestDTO(legs, 0))).hasSize(1);
+        assertThat(validator.validate(new BatchTransactionRequestDTO(legs,
+                BatchTransactionRequestDTO.MAX_CHUNK_SIZE + 1))).hasSize(1);
+        assertThat(validator.validate(new BatchTransactionRequestDTO(legs, null))).isEmpty();
+        assertThat(new BatchTransactionRequestDTO(legs, null).effectiveChunkSize())
+                .isEqualTo(BatchTransactionRequestDTO.DEFAULT_CHUNK_SIZE);
+        assertThat(validator.validate(new BatchTransactionRequestDTO(
+                Collections.nCopies(BatchTransactionRequestDTO.MAX_LEGS + 1, legs.get(0)), null))).hasSize(1);
+    }
+
+    private static BatchLegDTO leg(TransactionType type, String accountNumber, String amount, String target) {
+        return new BatchLegDTO(type, accountNumber, new BigDecimal(amount), null, target);
+    }
+
+    private String newAccount(String accountNumber) {
+        Client owner = new Client();
+        owner.setFirstName("Batch");
+        owner.setLastName(accountNumber);
+        owner.setEmail(accountNumber.toLowerCase() + "@example.com");
+        clientRepository.save(owner);
+
+        Account account = new Account();
+        account.setAccountType(AccountType.COURANT);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(INITIAL_BALANCE);
+        account.setOwner(owner);
+        accountRepository.save(account);
+        return accountNumber;
+    }
+
+    private BigDecimal balance(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.dto.ClientSearchResultDTO;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hors transaction, les mises à jour « après commit » de l'index sont
+ * appliquées immédiatement.
+ */
+class ClientSearchIndexTests {
+
+    private final ClientRepository clientRepository = mock(ClientRepository.class);
+    private final ClientSearchIndex index = new ClientSearchIndex(clientRepository);
+
+    @BeforeEach
+    void indexClients() {
+        index.indexAfterCommit(List.of(
+                client(1L, "Élodie", "Lefèvre", "elodie.lefevre@example.com", "+33 6 12 34 56 78"),
+                client(2L, "Jean", "Dupont", "jean.dupont@example.com", "01 23 45 67 89"),
+                client(3L, "Jean-Marc", "Martin", "jm.martin@example.com", null)));
+    }
+
+    @Test
+    void matchesWithoutCaseOrAccents() {
+        assertThat(ids("elo")).containsExactly(1L);
+        assertThat(ids("LEFEVRE")).containsExactly(1L);
+        assertThat(ids("lefè")).containsExactly(1L);
+    }
+
+    @Test
+    void matchesEmailPrefixAndEmailWords() {
+        assertThat(ids("jean.dup")).containsExactly(2L);
+        assertThat(ids("example")).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void everyTokenMustMatchInAnyOrder() {
+        assertThat(ids("jean")).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(ids("jean dup")).containsExactly(2L);
+        assertThat(ids("martin jean")).containsExactly(3L);
+        assertThat(ids("jean lef")).isEmpty();
+    }
+
+    @Test
+    void queriesAreSplitLikeIndexedNames() {
+        index.indexAfterCommit(client(4L, "Jean-Pierre", "Lefèvre-Durand", "jp@example.com", null));
+
+        assertThat(ids("jean-pierre")).containsExactly(4L);
+        assertThat(ids("Jean-Pierre")).containsExactly(4L);
+        assertThat(ids("jean pierre")).containsExactly(4L);
+        assertThat(ids("pierre")).containsExactly(4L);
+        assertThat(ids("lefevre-dur")).containsExactly(4L);
+        assertThat(ids("jean-marc")).containsExactly(3L);
+    }
+
+    @Test
+    void phoneQueriesCompareDigitsOnly() {
+        assertThat(ids("+33 6 12")).containsExactly(1L);
+        assertThat(ids("01.23.45")).containsExactly(2L);
+        assertThat(ids("0123456789")).containsExactly(2L);
+        assertThat(ids("06")).isEmpty();
+    }
+
+    @Test
+    void blankQueryOrZeroLimitFindsNothing() {
+        assertThat(ids("  ")).isEmpty();
+        assertThat(index.search("jean", 0)).isEmpty();
+        assertThat(index.search("jean", 1)).hasSize(1);
+    }
+
+    @Test
+    void updateReplacesOldTerms() {
+        index.indexAfterCommit(client(2L, "Jean", "Durand", "jean.durand@example.com", null));
+
+        assertThat(ids("dupont")).isEmpty();
+        assertThat(ids("01 23")).isEmpty();
+        assertThat(ids("durand")).containsExactly(2L);
+        assertThat(index.search("durand", 10).get(0).email()).isEqualTo("jean.durand@example.com");
+    }
+
+    @Test
+    void removedClientIsNoLongerFound() {
+        index.removeAfterCommit(2L);
+
+        assertThat(ids("jean")).containsExactly(3L);
+        assertThat(ids("0123")).isEmpty();
+    }
+
+    @Test
+    void rebuildKeepsNewerEntriesAndSkipsClientsDeletedMeanwhile() {
+        ClientSearchIndex rebuilt = new ClientSearchIndex(clientRepository);
+        when(clientRepository.findAllForSearch()).thenAnswer(invocation -> {
+            // Commits survenus après la lecture de la table par la reconstruction.
+            rebuilt.removeAfterCommit(4L);
+            rebuilt.indexAfterCommit(client(5L, "Paul", "Nouveau", "paul@example.com", null));
+            return List.of(
+                    new ClientSearchResultDTO(4L, "Supprimé", "Pendant", "gone@example.com", null),
+                    new ClientSearchResultDTO(5L, "Paul", "Ancien", "paul@example.com", null),
+                    new ClientSearchResultDTO(6L, "Léa", "Stable", "lea@example.com", null));
+        });
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.search("supprime", 10)).isEmpty();
+        assertThat(rebuilt.search("paul", 10)).extracting(ClientSearchResultDTO::lastName)
+                .containsExactly("Nouveau");
+        assertThat(rebuilt.search("lea", 10)).extracting(ClientSearchResultDTO::id).containsExactly(6L);
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10).stream().map(ClientSearchResultDTO::id).toList();
+    }
+
+    private static Client client(Long id, String firstName, String lastName, String email, String phone) {
+        Client client = new Client();
+        client.setId(id);
+        client.setFirstName(firstName);
+        client.setLastName(lastName);
+        client.setEmail(email);
+        client.setPhoneNumber(phone);
+        return client;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ega.bank_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTests {
+
+    @Test
+    void quotedFieldsKeepCommasAndNewlines() throws IOException {
+        assertThat(readAll("firstName,address\nJean,\"12, rue de la Paix\nParis\"\n"))
+                .containsExactly(
+                        List.of("firstName", "address"),
+                        List.of("Jean", "12, rue de la Paix\nParis"));
+    }
+
+    @Test
+    void doubledQuoteIsALiteralQuote() throws IOException {
+        assertThat(readAll("a,b\n\"dit \"\"Jo\"\"\",\"\"\"\"\n"))
+                .containsExactly(List.of("a", "b"), List.of("dit \"Jo\"", "\""));
+    }
+
+    @Test
+    void crlfLineEndingsAndBlankLines() throws IOException {
+        assertThat(readAll("a,b\r\n1,2\r\n\r\n3,\r\n"))
+                .containsExactly(List.of("a", "b"), List.of("1", "2"), List.of("3", ""));
+    }
+
+    @Test
+    void lastRecordWithoutLineEnding() throws IOException {
+        assertThat(readAll("a,b\n1,\"2\""))
+                .containsExactly(List.of("a", "b"), List.of("1", "2"));
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n1,\"ouvert\n2,3\n"));
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Guillemet non refermé");
+    }
+
+    @Test
+    void leadingByteOrderMarkIsSkipped() throws IOException {
+        assertThat(readAll("\uFEFFfirstName,lastName\nJean,Dupont\n"))
+                .containsExactly(List.of("firstName", "lastName"), List.of("Jean", "Dupont"));
+    }
+
+    @Test
+    void byteOrderMarkInsideAFieldIsKept() throws IOException {
+        assertThat(readAll("a\n\uFEFFb\n")).containsExactly(List.of("a"), List.of("\uFEFFb"));
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
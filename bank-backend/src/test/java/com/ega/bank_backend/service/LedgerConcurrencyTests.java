@@ -0,0 +1,136 @@
+package com.ega.bank_backend.service;
+
+import com.ega.bank_backend.dto.TransactionRequestDTO;
+import com.ega.bank_backend.entity.Account;
+import com.ega.bank_backend.entity.AccountType;
+import com.ega.bank_backend.entity.Client;
+import com.ega.bank_backend.repository.AccountRepository;
+import com.ega.bank_backend.repository.ClientRepository;
+import com.ega.bank_backend.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Écritures concurrentes sur le grand livre : verrous répartis, mises à jour
+ * conditionnées à la version et rejeux ({@link OptimisticRetryPolicy}).
+ */
+@SpringBootTest(properties = {
+        "bank.ledger.retry.max-attempts=3",
+        "bank.ledger.retry.backoff-ms=0"})
+class LedgerConcurrencyTests {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+    private static final int ROUNDS = 200;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private OptimisticRetryPolicy retryPolicy;
+    @Autowired
+    private ClientRepository clientRepository;
+    @SpyBean
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void crossedTransfersAndDepositsKeepExactBalances() throws Exception {
+        Account a = newAccount("FR76LEDGERA");
+        Account b = newAccount("FR76LEDGERB");
+        BigDecimal transferred = new BigDecimal("3.00");
+        BigDecimal returned = new BigDecimal("2.00");
+        BigDecimal deposited = new BigDecimal("0.50");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> operations = new ArrayList<>(3 * ROUNDS);
+        try {
+            for (int i = 0; i < ROUNDS; i++) {
+                operations.add(executor.submit(() -> transactionService.transfer(
+                        new TransactionRequestDTO(a.getAccountNumber(), transferred, "aller", b.getAccountNumber()))));
+                operations.add(executor.submit(() -> transactionService.transfer(
+                        new TransactionRequestDTO(b.getAccountNumber(), returned, "retour", a.getAccountNumber()))));
+                operations.add(executor.submit(() -> transactionService.deposit(
+                        new TransactionRequestDTO(a.getAccountNumber(), deposited, null, null))));
+            }
+            // Un interblocage laisserait des opérations en attente : get(timeout) échoue.
+            for (Future<?> operation : operations) {
+                operation.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal rounds = BigDecimal.valueOf(ROUNDS);
+        BigDecimal balanceA = balance(a);
+        BigDecimal balanceB = balance(b);
+        assertThat(balanceA).isEqualByComparingTo(INITIAL_BALANCE
+                .subtract(transferred.multiply(rounds))
+                .add(returned.multiply(rounds))
+                .add(deposited.multiply(rounds)));
+        assertThat(balanceB).isEqualByComparingTo(INITIAL_BALANCE
+                .add(transferred.multiply(rounds))
+                .subtract(returned.multiply(rounds)));
+        assertThat(balanceA.add(balanceB)).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(2))
+                .add(deposited.multiply(rounds)));
+        assertThat(transactionRepository.count()).isGreaterThanOrEqualTo(5L * ROUNDS);
+    }
+
+    @Test
+    void conflictingDebitIsRetriedThenReported() {
+        Account account = newAccount("FR76LEDGERC");
+        // Aucune ligne mise à jour : une autre écriture aurait changé la version.
+        doReturn(0).when(accountRepository).debit(eq(account.getId()), any(), anyLong());
+        long retries = retryPolicy.getRetryCount();
+        long failures = retryPolicy.getFailureCount();
+        long rows = transactionRepository.count();
+
+        assertThatThrownBy(() -> transactionService.withdraw(
+                new TransactionRequestDTO(account.getAccountNumber(), BigDecimal.TEN, null, null)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        verify(accountRepository, times(3)).debit(eq(account.getId()), any(), anyLong());
+        assertThat(retryPolicy.getRetryCount() - retries).isEqualTo(2);
+        assertThat(retryPolicy.getFailureCount() - failures).isEqualTo(1);
+        assertThat(balance(account)).isEqualByComparingTo(INITIAL_BALANCE);
+        assertThat(transactionRepository.count()).isEqualTo(rows);
+    }
+
+    private Account newAccount(String accountNumber) {
+        Client owner = new Client();
+        owner.setFirstName("Ledger");
+        owner.setLastName(accountNumber);
+        owner.setEmail(accountNumber.toLowerCase() + "@example.com");
+        clientRepository.save(owner);
+
+        Account account = new Account();
+        account.setAccountType(AccountType.COURANT);
+        account.setAccountNumber(accountNumber);
+        account.setBalance(INITIAL_BALANCE);
+        account.setOwner(owner);
+        return accountRepository.save(account);
+    }
+
+    private BigDecimal balance(Account account) {
+        return accountRepository.findByAccountNumber(account.getAccountNumber()).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,37 @@
+package com.ega.bank_backend.support;
+
+import com.ega.bank_backend.monitoring.SqlStatementCounter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Assertion « cet appel exécute au plus N requêtes SQL », appuyée sur
+ * {@link SqlStatementCounter}. L'appel peut être une requête MockMvc : la
+ * portée du filtre HTTP s'imbrique dans celle du test.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws Exception;
+    }
+
+    public static <T> T assertAtMost(long maxStatements, Action<T> action) throws Exception {
+        SqlStatementCounter.beginRecording();
+        T result;
+        SqlStatementCounter.Stats stats;
+        try {
+            result = action.run();
+        } finally {
+            stats = SqlStatementCounter.end();
+        }
+        assertThat(stats.getCount())
+                .as("Requêtes SQL exécutées (budget %d) :%n%s", maxStatements,
+                        String.join(System.lineSeparator(), stats.getQueries()))
+                .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+}